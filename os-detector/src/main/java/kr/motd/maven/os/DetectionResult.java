@@ -0,0 +1,183 @@
+/*
+ * Copyright 2026 Trustin Heuiseung Lee.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package kr.motd.maven.os;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+/**
+ * The normalized operating system and CPU architecture of the current JVM, for use at application runtime.
+ * Unlike the Maven extension and goals, the detection does not require Maven and does not set any system
+ * properties. {@link #current()} detects the platform only once per class loader, so that it can be called
+ * from hot paths such as native library loaders.
+ */
+public final class DetectionResult {
+
+    private static volatile DetectionResult current;
+
+    /**
+     * Returns the platform of the current JVM, detecting it on the first invocation.
+     * Concurrent first invocations may detect the platform more than once, but they all get an equal result.
+     * Unlike the build, the detection never fails; an unknown operating system or CPU architecture is reported
+     * as {@code unknown}, regardless of the {@code failOnUnknownOS} and {@code failOnEmulatedArch} system
+     * properties.
+     */
+    public static DetectionResult current() {
+        DetectionResult result = current;
+        if (result == null) {
+            current = result = detect();
+        }
+        return result;
+    }
+
+    private static DetectionResult detect() {
+        final Detector detector = new Detector(new ReadOnlySystemPropertyOperations(),
+                                               new Detector.SimpleFileOperations()) {
+            @Override
+            protected void log(String message) {}
+
+            @Override
+            protected void logProperty(String name, String value) {}
+        };
+
+        final Properties props = new Properties();
+        detector.detect(props, Collections.<String>emptyList());
+        return new DetectionResult(props);
+    }
+
+    private final String name;
+    private final String arch;
+    private final int bitness;
+    private final String version;
+    private final String classifier;
+    private final String release;
+    private final String releaseVersion;
+    private final Set<String> releaseLikes;
+
+    DetectionResult(Properties props) {
+        name = props.getProperty(Detector.DETECTED_NAME);
+        arch = props.getProperty(Detector.DETECTED_ARCH);
+        bitness = Integer.parseInt(props.getProperty(Detector.DETECTED_BITNESS));
+        version = props.getProperty(Detector.DETECTED_VERSION);
+        classifier = props.getProperty(Detector.DETECTED_CLASSIFIER);
+        release = props.getProperty(Detector.DETECTED_RELEASE);
+        releaseVersion = props.getProperty(Detector.DETECTED_RELEASE_VERSION);
+
+        final Set<String> likes = new LinkedHashSet<String>();
+        for (Map.Entry<Object, Object> e : props.entrySet()) {
+            final String key = e.getKey().toString();
+            if (key.startsWith(Detector.DETECTED_RELEASE_LIKE_PREFIX)) {
+                likes.add(key.substring(Detector.DETECTED_RELEASE_LIKE_PREFIX.length()));
+            }
+        }
+        releaseLikes = Collections.unmodifiableSet(likes);
+    }
+
+    /**
+     * Returns the normalized {@code os.name}, e.g. {@code linux}, {@code osx}.
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Returns the normalized {@code os.arch}, e.g. {@code x86_64}, {@code aarch_64}.
+     */
+    public String arch() {
+        return arch;
+    }
+
+    /**
+     * Returns the bitness of the JVM, e.g. {@code 64}, {@code 32}.
+     */
+    public int bitness() {
+        return bitness;
+    }
+
+    /**
+     * Returns {@code <major>.<minor>} of {@code os.version}, or {@code null} if it could not be parsed.
+     */
+    @Nullable
+    public String version() {
+        return version;
+    }
+
+    /**
+     * Returns {@code <name>-<arch>}, e.g. {@code linux-x86_64}.
+     */
+    public String classifier() {
+        return classifier;
+    }
+
+    /**
+     * Returns the ID of the Linux release, e.g. {@code ubuntu}, or {@code null} if not available.
+     */
+    @Nullable
+    public String release() {
+        return release;
+    }
+
+    /**
+     * Returns the version ID of the Linux release, or {@code null} if not available.
+     */
+    @Nullable
+    public String releaseVersion() {
+        return releaseVersion;
+    }
+
+    /**
+     * Returns the IDs of the Linux releases that this release is "like", including {@link #release()} itself.
+     */
+    public Set<String> releaseLikes() {
+        return releaseLikes;
+    }
+
+    @Override
+    public String toString() {
+        return classifier;
+    }
+
+    private static final class ReadOnlySystemPropertyOperations implements SystemPropertyOperationProvider {
+        @Override
+        public String getSystemProperty(String name) {
+            // The switches that fail a build must not fail an application.
+            if ("failOnUnknownOS".equals(name)) {
+                return "false";
+            }
+            if ("failOnEmulatedArch".equals(name)) {
+                return null;
+            }
+            return System.getProperty(name);
+        }
+
+        @Override
+        public String getSystemProperty(String name, String def) {
+            final String value = getSystemProperty(name);
+            return value != null ? value : def;
+        }
+
+        @Override
+        public String setSystemProperty(String name, String value) {
+            // Leave the system properties intact.
+            return System.getProperty(name);
+        }
+    }
+}
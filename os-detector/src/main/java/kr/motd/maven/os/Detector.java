@@ -0,0 +1,1151 @@
+/*
+ * Copyright 2014 Trustin Heuiseung Lee.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package kr.motd.maven.os;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public abstract class Detector {
+
+    public static final String DETECTED_NAME = "os.detected.name";
+    public static final String DETECTED_ARCH = "os.detected.arch";
+    public static final String DETECTED_ARCH_NATIVE = DETECTED_ARCH + ".native";
+    public static final String DETECTED_EMULATED = "os.detected.emulated";
+    public static final String DETECTED_BITNESS = "os.detected.bitness";
+    public static final String DETECTED_VERSION = "os.detected.version";
+    public static final String DETECTED_VERSION_MAJOR = DETECTED_VERSION + ".major";
+    public static final String DETECTED_VERSION_MINOR = DETECTED_VERSION + ".minor";
+    public static final String DETECTED_CLASSIFIER = "os.detected.classifier";
+    public static final String DETECTED_RELEASE = "os.detected.release";
+    public static final String DETECTED_RELEASE_VERSION = DETECTED_RELEASE + ".version";
+    public static final String DETECTED_RELEASE_LIKE_PREFIX = DETECTED_RELEASE + ".like.";
+    public static final String DETECTED_FS_PREFIX = "os.detected.fs.";
+    public static final String DETECTED_FINGERPRINT = "os.detected.fingerprint";
+    public static final String DETECTED_CPU_PREFIX = "os.detected.cpu.";
+    public static final String DETECTED_CPU_COUNT = DETECTED_CPU_PREFIX + "count";
+    public static final String DETECTED_CPU_ONLINE = DETECTED_CPU_PREFIX + "online";
+    public static final String DETECTED_CPU_LOADAVG = DETECTED_CPU_PREFIX + "loadavg";
+    public static final String DETECTED_CPU_GOVERNOR = DETECTED_CPU_PREFIX + "governor";
+    public static final String DETECTED_CPU_BOOST = DETECTED_CPU_PREFIX + "boost";
+    public static final String DETECTED_CPU_SMT = DETECTED_CPU_PREFIX + "smt";
+
+    private static final String UNKNOWN = "unknown";
+    private static final String LINUX_ID_PREFIX = "ID=";
+    private static final String LINUX_ID_LIKE_PREFIX = "ID_LIKE=";
+    private static final String LINUX_VERSION_ID_PREFIX = "VERSION_ID=";
+    private static final String LINUX_ETC_DIR = "/etc/";
+    private static final String[] LINUX_OS_RELEASE_FILES = {"/etc/os-release", "/usr/lib/os-release"};
+
+    /**
+     * The distribution-specific release files to inspect when there's no os-release file,
+     * in the order of preference.
+     */
+    private static final LinuxReleaseFile[] LINUX_RELEASE_FILES = {
+            // Older versions of Red Hat. Other variants are not currently supported.
+            new LinuxReleaseFile("/etc/redhat-release", null, new String[] { "rhel", "fedora" },
+                                 "(\\d+)",
+                                 "centos", "centos",
+                                 "fedora", "fedora",
+                                 "red hat enterprise linux", "rhel"),
+            new LinuxReleaseFile("/etc/SuSE-release", "sles", new String[] { "suse" },
+                                 "(\\d+(?:\\.\\d+)?)",
+                                 "opensuse", "opensuse"),
+            new LinuxReleaseFile("/etc/alpine-release", "alpine", new String[0], "(\\d+(?:\\.\\d+)*)"),
+            new LinuxReleaseFile("/etc/gentoo-release", "gentoo", new String[0], "(\\d+(?:\\.\\d+)*)"),
+            new LinuxReleaseFile("/etc/arch-release", "arch", new String[0], null),
+            new LinuxReleaseFile("/etc/slackware-version", "slackware", new String[0], "(\\d+(?:\\.\\d+)*)"),
+            new LinuxReleaseFile("/etc/debian_version", "debian", new String[0], "(\\d+)"),
+    };
+    private static final String LINUX_CPUINFO_FILE = "/proc/cpuinfo";
+    private static final String LINUX_BINFMT_MISC_DIR = "/proc/sys/fs/binfmt_misc/";
+    private static final String LINUX_MOUNTINFO_FILE = "/proc/self/mountinfo";
+    private static final String LINUX_SYS_DEV_BLOCK_DIR = "/sys/dev/block/";
+    private static final String LINUX_LOADAVG_FILE = "/proc/loadavg";
+    private static final String LINUX_SYS_CPU_DIR = "/sys/devices/system/cpu/";
+    private static final String LINUX_CPU_ONLINE_FILE = LINUX_SYS_CPU_DIR + "online";
+    private static final String[] LINUX_SCALING_GOVERNOR_FILES = {
+            LINUX_SYS_CPU_DIR + "cpu0/cpufreq/scaling_governor",
+            LINUX_SYS_CPU_DIR + "cpufreq/policy0/scaling_governor"
+    };
+    private static final String LINUX_INTEL_NO_TURBO_FILE = LINUX_SYS_CPU_DIR + "intel_pstate/no_turbo";
+    private static final String LINUX_CPUFREQ_BOOST_FILE = LINUX_SYS_CPU_DIR + "cpufreq/boost";
+    private static final String LINUX_SMT_ACTIVE_FILE = LINUX_SYS_CPU_DIR + "smt/active";
+
+    private static final Pattern VERSION_REGEX = Pattern.compile("((\\d+)\\.(\\d+)).*");
+    private static final Pattern CPU_ARCHITECTURE_REGEX = Pattern.compile("(\\d+)");
+    private static final Pattern WHITESPACE_REGEX = Pattern.compile("\\s+");
+    private static final Pattern MOUNTINFO_ESCAPE_REGEX = Pattern.compile("\\\\([0-7]{3})");
+
+    private final SystemPropertyOperationProvider systemPropertyOperationProvider;
+    private final FileOperationProvider fileOperationProvider;
+
+    // The file system information read by detectFileSystems(), which rarely changes during a build.
+    private List<MountInfo> linuxMounts;
+    private final Map<String, Boolean> rotationalDevices = new HashMap<String, Boolean>();
+
+    public Detector() {
+        this(new SimpleSystemPropertyOperations(), new SimpleFileOperations());
+    }
+
+    public Detector(SystemPropertyOperationProvider systemPropertyOperationProvider,
+        FileOperationProvider fileOperationProvider) {
+        this.systemPropertyOperationProvider = systemPropertyOperationProvider;
+        this.fileOperationProvider = fileOperationProvider;
+    }
+
+    protected void detect(Properties props, List<String> classifierWithLikes) {
+        log("------------------------------------------------------------------------");
+        log("Detecting the operating system and CPU architecture");
+        log("------------------------------------------------------------------------");
+
+        final String osName = systemPropertyOperationProvider.getSystemProperty("os.name");
+        final String osArch = systemPropertyOperationProvider.getSystemProperty("os.arch");
+        final String osVersion = systemPropertyOperationProvider.getSystemProperty("os.version");
+
+        final String detectedName = normalizeOs(osName);
+        final String detectedArch = normalizeArch(osArch);
+        final int detectedBitness = determineBitness(detectedArch);
+
+        setProperty(props, DETECTED_NAME, detectedName);
+        setProperty(props, DETECTED_ARCH, detectedArch);
+        setProperty(props, DETECTED_BITNESS,"" + detectedBitness);
+
+        final Matcher versionMatcher = VERSION_REGEX.matcher(osVersion);
+        if (versionMatcher.matches()) {
+            setProperty(props, DETECTED_VERSION, versionMatcher.group(1));
+            setProperty(props, DETECTED_VERSION_MAJOR, versionMatcher.group(2));
+            setProperty(props, DETECTED_VERSION_MINOR, versionMatcher.group(3));
+        }
+
+        final String failOnUnknownOS =
+            systemPropertyOperationProvider.getSystemProperty("failOnUnknownOS");
+        if (!"false".equalsIgnoreCase(failOnUnknownOS)) {
+            if (UNKNOWN.equals(detectedName)) {
+                throw new DetectionException("unknown os.name: " + osName);
+            }
+            if (UNKNOWN.equals(detectedArch)) {
+                throw new DetectionException("unknown os.arch: " + osArch);
+            }
+        }
+
+        // For Linux systems, check if the JVM runs under binary translation, e.g. qemu-user or Rosetta.
+        // An unknown architecture, allowed by failOnUnknownOS=false, can't be compared with the native one.
+        if ("linux".equals(detectedName) && !UNKNOWN.equals(detectedArch)) {
+            detectEmulation(props, detectedArch);
+        }
+
+        // Assume the default classifier, without any os "like" extension.
+        final StringBuilder detectedClassifierBuilder = new StringBuilder();
+        detectedClassifierBuilder.append(detectedName);
+        detectedClassifierBuilder.append('-');
+        detectedClassifierBuilder.append(detectedArch);
+
+        // For Linux systems, add additional properties regarding details of the OS.
+        final LinuxRelease linuxRelease = "linux".equals(detectedName) ? getLinuxRelease() : null;
+        if (linuxRelease != null) {
+            setProperty(props, DETECTED_RELEASE, linuxRelease.id);
+            if (linuxRelease.version != null) {
+                setProperty(props, DETECTED_RELEASE_VERSION, linuxRelease.version);
+            }
+
+            // Add properties for all systems that this OS is "like".
+            for (String like : linuxRelease.like) {
+                final String propKey = DETECTED_RELEASE_LIKE_PREFIX + like;
+                setProperty(props, propKey, "true");
+            }
+
+            // If any of the requested classifier likes are found in the "likes" for this system,
+            // append it to the classifier.
+            for (String classifierLike : classifierWithLikes) {
+                if (linuxRelease.like.contains(classifierLike)) {
+                    detectedClassifierBuilder.append('-');
+                    detectedClassifierBuilder.append(classifierLike);
+                    // First one wins.
+                    break;
+                }
+            }
+        }
+        setProperty(props, DETECTED_CLASSIFIER, detectedClassifierBuilder.toString());
+    }
+
+    /**
+     * Detects the file system of each of the specified paths and sets the following properties, where
+     * {@code <name>} is the key of the path in {@code paths}:
+     * <ul>
+     * <li>{@code os.detected.fs.<name>.type} - the type of the file system, e.g. {@code ext4}, {@code tmpfs}</li>
+     * <li>{@code os.detected.fs.<name>.options} - the mount options, e.g. {@code rw,relatime}</li>
+     * <li>{@code os.detected.fs.<name>.rotational} - whether the underlying block device is rotational.
+     *     Only available if the file system is backed by a block device.</li>
+     * </ul>
+     * The properties are available on Linux only, where they are read from {@code /proc/self/mountinfo} and
+     * {@code /sys/dev/block}. They are read only once per {@link Detector}, so that the file systems of many
+     * paths can be detected cheaply.
+     */
+    protected void detectFileSystems(Properties props, Map<String, String> paths) {
+        final String osName = systemPropertyOperationProvider.getSystemProperty("os.name");
+        if (osName == null || !"linux".equals(normalizeOs(osName))) {
+            return;
+        }
+
+        final List<MountInfo> mounts = getLinuxMounts();
+        if (mounts.isEmpty()) {
+            return;
+        }
+
+        for (Map.Entry<String, String> e : paths.entrySet()) {
+            final MountInfo mount = findMount(mounts, e.getValue());
+            if (mount == null) {
+                continue;
+            }
+
+            final String prefix = DETECTED_FS_PREFIX + e.getKey();
+            setProperty(props, prefix + ".type", mount.type);
+            setProperty(props, prefix + ".options", mount.options);
+            final Boolean rotational = isRotational(mount.device);
+            if (rotational != null) {
+                setProperty(props, prefix + ".rotational", rotational.toString());
+            }
+        }
+    }
+
+    /**
+     * Detects the CPU settings that affect the stability of benchmark results and sets the following properties:
+     * <ul>
+     * <li>{@code os.detected.cpu.count} - the number of processors available to the JVM, which may be limited
+     *     by a container</li>
+     * <li>{@code os.detected.cpu.online} - the number of online processors of the host (Linux only)</li>
+     * <li>{@code os.detected.cpu.loadavg} - the system load average for the last minute, which counts the tasks
+     *     of the whole host rather than of the container</li>
+     * <li>{@code os.detected.cpu.governor} - the cpufreq scaling governor of the first CPU,
+     *     e.g. {@code performance}, {@code powersave} (Linux only)</li>
+     * <li>{@code os.detected.cpu.boost} - whether turbo boost is enabled (Linux only)</li>
+     * <li>{@code os.detected.cpu.smt} - whether simultaneous multithreading is active (Linux only)</li>
+     * </ul>
+     * A property is not set if the setting is not available, e.g. in a virtual machine without cpufreq.
+     */
+    protected void detectCpuSettings(Properties props) {
+        setProperty(props, DETECTED_CPU_COUNT, String.valueOf(Runtime.getRuntime().availableProcessors()));
+
+        final String osName = systemPropertyOperationProvider.getSystemProperty("os.name");
+        if (osName == null || !"linux".equals(normalizeOs(osName))) {
+            // Not Linux; ask the JVM instead.
+            final double systemLoadAverage =
+                    ManagementFactory.getOperatingSystemMXBean().getSystemLoadAverage();
+            if (systemLoadAverage >= 0) {
+                setProperty(props, DETECTED_CPU_LOADAVG, String.format(Locale.ROOT, "%.2f", systemLoadAverage));
+            }
+            return;
+        }
+
+        final int onlineCpus = getLinuxOnlineCpus();
+        if (onlineCpus > 0) {
+            setProperty(props, DETECTED_CPU_ONLINE, String.valueOf(onlineCpus));
+        }
+
+        final String loadavg = readFirstLine(LINUX_LOADAVG_FILE);
+        if (loadavg != null) {
+            final String[] fields = WHITESPACE_REGEX.split(loadavg);
+            if (!fields[0].isEmpty()) {
+                setProperty(props, DETECTED_CPU_LOADAVG, fields[0]);
+            }
+        }
+
+        for (String fileName : LINUX_SCALING_GOVERNOR_FILES) {
+            final String governor = readFirstLine(fileName);
+            if (governor != null) {
+                setProperty(props, DETECTED_CPU_GOVERNOR, governor);
+                break;
+            }
+        }
+
+        // intel_pstate has its own switch, which is the inverse of the generic one.
+        final String noTurbo = readFirstLine(LINUX_INTEL_NO_TURBO_FILE);
+        if (noTurbo != null) {
+            setProperty(props, DETECTED_CPU_BOOST, String.valueOf(!"1".equals(noTurbo)));
+        } else {
+            final String boost = readFirstLine(LINUX_CPUFREQ_BOOST_FILE);
+            if (boost != null) {
+                setProperty(props, DETECTED_CPU_BOOST, String.valueOf("1".equals(boost)));
+            }
+        }
+
+        final String smtActive = readFirstLine(LINUX_SMT_ACTIVE_FILE);
+        if (smtActive != null) {
+            setProperty(props, DETECTED_CPU_SMT, String.valueOf("1".equals(smtActive)));
+        }
+    }
+
+    /**
+     * Counts the online processors of the host from {@code /sys/devices/system/cpu/online}, e.g. {@code 0-3,6},
+     * which is not limited by the CPU quota or the cpuset of a container, unlike
+     * {@link Runtime#availableProcessors()}. Returns {@code 0} if unknown.
+     */
+    private int getLinuxOnlineCpus() {
+        final String online = readFirstLine(LINUX_CPU_ONLINE_FILE);
+        if (online == null || online.isEmpty()) {
+            return 0;
+        }
+
+        int count = 0;
+        try {
+            for (String range : online.split(",")) {
+                final int dashIdx = range.indexOf('-');
+                if (dashIdx < 0) {
+                    Integer.parseInt(range.trim());
+                    count++;
+                } else {
+                    count += Integer.parseInt(range.substring(dashIdx + 1).trim()) -
+                             Integer.parseInt(range.substring(0, dashIdx).trim()) + 1;
+                }
+            }
+        } catch (NumberFormatException ignored) {
+            return 0;
+        }
+        return count;
+    }
+
+    private void detectEmulation(Properties props, String detectedArch) {
+        final String nativeArch = getLinuxNativeArch();
+        if (nativeArch == null) {
+            return;
+        }
+
+        final boolean emulated = !normalizeArchFamily(nativeArch).equals(normalizeArchFamily(detectedArch));
+        setProperty(props, DETECTED_ARCH_NATIVE, nativeArch);
+        setProperty(props, DETECTED_EMULATED, String.valueOf(emulated));
+        if (!emulated) {
+            return;
+        }
+
+        final String translator = getLinuxBinaryTranslator(detectedArch);
+        final String message = "The " + detectedArch + " JVM is running on the " + nativeArch + " CPU" +
+                               (translator != null ? " via " + translator : "") +
+                               "; native code will run emulated.";
+        final String failOnEmulatedArch =
+            systemPropertyOperationProvider.getSystemProperty("failOnEmulatedArch");
+        if ("true".equalsIgnoreCase(failOnEmulatedArch)) {
+            throw new DetectionException(message);
+        }
+        logWarning(message);
+    }
+
+    private void setProperty(Properties props, String name, String value) {
+        props.setProperty(name, value);
+        systemPropertyOperationProvider.setSystemProperty(name, value);
+        logProperty(name, value);
+    }
+
+    protected abstract void log(String message);
+    protected abstract void logProperty(String name, String value);
+
+    /**
+     * Logs a condition that does not fail the detection but may affect the build, such as emulation.
+     * Override it to log at the warning level of the build tool.
+     */
+    protected void logWarning(String message) {
+        log("WARNING: " + message);
+    }
+
+    private static String normalizeOs(String value) {
+        value = normalize(value);
+        if (value.startsWith("aix")) {
+            return "aix";
+        }
+        if (value.startsWith("hpux")) {
+            return "hpux";
+        }
+        if (value.startsWith("os400")) {
+            // Avoid the names such as os4000
+            if (value.length() <= 5 || !Character.isDigit(value.charAt(5))) {
+                return "os400";
+            }
+        }
+        if (value.startsWith("linux")) {
+            return "linux";
+        }
+        if (value.startsWith("mac") || value.startsWith("osx")) {
+            return "osx";
+        }
+        if (value.startsWith("freebsd")) {
+            return "freebsd";
+        }
+        if (value.startsWith("openbsd")) {
+            return "openbsd";
+        }
+        if (value.startsWith("netbsd")) {
+            return "netbsd";
+        }
+        if (value.startsWith("solaris") || value.startsWith("sunos")) {
+            return "sunos";
+        }
+        if (value.startsWith("windows")) {
+            return "windows";
+        }
+        if (value.startsWith("zos")) {
+            return "zos";
+        }
+
+        return UNKNOWN;
+    }
+
+    private static String normalizeArch(String value) {
+        value = normalize(value);
+        if (value.matches("^(x8664|amd64|ia32e|em64t|x64)$")) {
+            return "x86_64";
+        }
+        if (value.matches("^(x8632|x86|i[3-6]86|ia32|x32)$")) {
+            return "x86_32";
+        }
+        if (value.matches("^(ia64w?|itanium64)$")) {
+            return "itanium_64";
+        }
+        if ("ia64n".equals(value)) {
+            return "itanium_32";
+        }
+        if (value.matches("^(sparc|sparc32)$")) {
+            return "sparc_32";
+        }
+        if (value.matches("^(sparcv9|sparc64)$")) {
+            return "sparc_64";
+        }
+        if (value.matches("^(arm|arm32)$")) {
+            return "arm_32";
+        }
+        if ("aarch64".equals(value)) {
+            return "aarch_64";
+        }
+        if (value.matches("^(mips|mips32)$")) {
+            return "mips_32";
+        }
+        if (value.matches("^(mipsel|mips32el)$")) {
+            return "mipsel_32";
+        }
+        if ("mips64".equals(value)) {
+            return "mips_64";
+        }
+        if ("mips64el".equals(value)) {
+            return "mipsel_64";
+        }
+        if (value.matches("^(ppc|ppc32)$")) {
+            return "ppc_32";
+        }
+        if (value.matches("^(ppcle|ppc32le)$")) {
+            return "ppcle_32";
+        }
+        if ("ppc64".equals(value)) {
+            return "ppc_64";
+        }
+        if ("ppc64le".equals(value)) {
+            return "ppcle_64";
+        }
+        if ("s390".equals(value)) {
+            return "s390_32";
+        }
+        if ("s390x".equals(value)) {
+            return "s390_64";
+        }
+        if (value.matches("^(riscv|riscv32)$")) {
+            return "riscv";
+        }
+        if ("riscv64".equals(value)) {
+            return "riscv64";
+        }
+        if ("e2k".equals(value)) {
+            return "e2k";
+        }
+        if ("loongarch64".equals(value)) {
+            return "loongarch_64";
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Returns the family of the specified normalized architecture, e.g. {@code x86} for {@code x86_64},
+     * whose members can run each other's code natively.
+     */
+    private static String normalizeArchFamily(String arch) {
+        final int underscoreIdx = arch.indexOf('_');
+        final String family = underscoreIdx > 0 ? arch.substring(0, underscoreIdx) : arch;
+        if ("aarch".equals(family)) {
+            return "arm";
+        }
+        if ("ppcle".equals(family)) {
+            return "ppc";
+        }
+        if ("mipsel".equals(family)) {
+            return "mips";
+        }
+        if ("riscv64".equals(family)) {
+            return "riscv";
+        }
+        return family;
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.toLowerCase(Locale.US).replaceAll("[^a-z0-9]+", "");
+    }
+
+    private LinuxRelease getLinuxRelease() {
+        // List /etc once, rather than trying to open the files that are likely not to exist.
+        final String[] etcFileNames = fileOperationProvider.listFiles(LINUX_ETC_DIR);
+        final Set<String> etcFiles = etcFileNames != null ? new HashSet<String>(Arrays.asList(etcFileNames))
+                                                          : null;
+
+        // First, look for the os-release file.
+        for (String osReleaseFileName : LINUX_OS_RELEASE_FILES) {
+            if (!mayExist(etcFiles, osReleaseFileName)) {
+                continue;
+            }
+            LinuxRelease res = parseLinuxOsReleaseFile(osReleaseFileName);
+            if (res != null) {
+                return res;
+            }
+        }
+
+        // Older releases and minimal images don't have /etc/os-release. In this case, try
+        // parsing the distribution-specific files.
+        for (LinuxReleaseFile releaseFile : LINUX_RELEASE_FILES) {
+            if (!mayExist(etcFiles, releaseFile.fileName)) {
+                continue;
+            }
+            LinuxRelease res = parseLinuxReleaseFile(releaseFile);
+            if (res != null) {
+                return res;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns {@code false} if the specified file is known not to exist.
+     *
+     * @param etcFiles the names of the files in {@code /etc}, or {@code null} if unknown.
+     */
+    private static boolean mayExist(Set<String> etcFiles, String fileName) {
+        if (etcFiles == null || !fileName.startsWith(LINUX_ETC_DIR) ||
+            fileName.indexOf('/', LINUX_ETC_DIR.length()) >= 0) {
+            return true;
+        }
+        return etcFiles.contains(fileName.substring(LINUX_ETC_DIR.length()));
+    }
+
+    /**
+     * Parses a file in the format of {@code /etc/os-release} and return a {@link LinuxRelease}
+     * based on the {@code ID}, {@code ID_LIKE}, and {@code VERSION_ID} entries.
+     */
+    private LinuxRelease parseLinuxOsReleaseFile(String fileName) {
+        BufferedReader reader = null;
+        try {
+            InputStream in = fileOperationProvider.readFileIfExists(fileName);
+            if (in == null) {
+                return null;
+            }
+            reader = new BufferedReader(new InputStreamReader(in, "utf-8"));
+
+            String id = null;
+            String version = null;
+            final Set<String> likeSet = new LinkedHashSet<String>();
+            String line;
+            while((line = reader.readLine()) != null) {
+                // Ignore the byte order mark and the indentation.
+                line = stripLeadingWhitespace(line);
+
+                // Parse the ID line.
+                if (line.startsWith(LINUX_ID_PREFIX)) {
+                    // Set the ID for this version.
+                    final String value = normalizeOsReleaseValue(line.substring(LINUX_ID_PREFIX.length()));
+                    if (!value.isEmpty()) {
+                        id = value;
+                    }
+                    continue;
+                }
+
+                // Parse the VERSION_ID line.
+                if (line.startsWith(LINUX_VERSION_ID_PREFIX)) {
+                    // Set the ID for this version.
+                    final String value =
+                            normalizeOsReleaseValue(line.substring(LINUX_VERSION_ID_PREFIX.length()));
+                    if (!value.isEmpty()) {
+                        version = value;
+                    }
+                    continue;
+                }
+
+                // Parse the ID_LIKE line.
+                if (line.startsWith(LINUX_ID_LIKE_PREFIX)) {
+                    line = normalizeOsReleaseValue(line.substring(LINUX_ID_LIKE_PREFIX.length()));
+
+                    // Split the line on any whitespace.
+                    for (String part : WHITESPACE_REGEX.split(line)) {
+                        if (!part.isEmpty()) {
+                            likeSet.add(part);
+                        }
+                    }
+                }
+            }
+
+            if (id != null) {
+                // Also add the ID to the "like" set.
+                final Set<String> idAndLikeSet = new LinkedHashSet<String>();
+                idAndLikeSet.add(id);
+                idAndLikeSet.addAll(likeSet);
+                return new LinuxRelease(id, version, idAndLikeSet);
+            }
+        } catch (IOException ignored) {
+            // Just absorb. Don't treat failure to read /etc/os-release as an error.
+        } finally {
+            closeQuietly(reader);
+        }
+        return null;
+    }
+
+    /**
+     * Parses a distribution-specific release file such as {@code /etc/redhat-release} and returns a
+     * {@link LinuxRelease} containing the ID, the version found in the first line of the file, and
+     * the likes of the {@link LinuxReleaseFile} plus the ID. Returns {@code null} if the ID cannot be
+     * determined from the file.
+     */
+    private LinuxRelease parseLinuxReleaseFile(LinuxReleaseFile releaseFile) {
+        BufferedReader reader = null;
+        try {
+            InputStream in = fileOperationProvider.readFileIfExists(releaseFile.fileName);
+            if (in == null) {
+                return null;
+            }
+            reader = new BufferedReader(new InputStreamReader(in, "utf-8"));
+
+            // Only the first line matters, but some files have leading empty lines.
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = stripLeadingWhitespace(line);
+                if (!line.isEmpty()) {
+                    break;
+                }
+            }
+            line = line != null ? line.toLowerCase(Locale.US) : "";
+
+            String id = releaseFile.defaultId;
+            for (int i = 0; i < releaseFile.contentIds.length; i += 2) {
+                if (line.contains(releaseFile.contentIds[i])) {
+                    id = releaseFile.contentIds[i + 1];
+                    break;
+                }
+            }
+            if (id == null) {
+                // Other variants are not currently supported.
+                return null;
+            }
+
+            String version = null;
+            if (releaseFile.versionRegex != null) {
+                final Matcher versionMatcher = releaseFile.versionRegex.matcher(line);
+                if (versionMatcher.find()) {
+                    version = versionMatcher.group(1);
+                }
+            }
+
+            final Set<String> likeSet = new LinkedHashSet<String>(Arrays.asList(releaseFile.likes));
+            likeSet.add(id);
+
+            return new LinuxRelease(id, version, likeSet);
+        } catch (IOException ignored) {
+            // Just absorb. Don't treat failure to read the release file as an error.
+        } finally {
+            closeQuietly(reader);
+        }
+        return null;
+    }
+
+    private static String normalizeOsReleaseValue(String value) {
+        value = value.trim();
+
+        // Remove the quotes around the value, and then unescape what's inside.
+        final int length = value.length();
+        if (length >= 2) {
+            final char quote = value.charAt(0);
+            if ((quote == '"' || quote == '\'') && value.charAt(length - 1) == quote) {
+                value = value.substring(1, length - 1);
+                if (quote == '"' && value.indexOf('\\') >= 0) {
+                    value = unescapeOsReleaseValue(value);
+                }
+                return value.trim();
+            }
+        }
+
+        // Remove any stray quotes from the string.
+        return value.replace("\"", "");
+    }
+
+    private static String unescapeOsReleaseValue(String value) {
+        final StringBuilder buf = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            final char ch = value.charAt(i);
+            if (ch == '\\' && i + 1 < value.length()) {
+                buf.append(value.charAt(++i));
+            } else {
+                buf.append(ch);
+            }
+        }
+        return buf.toString();
+    }
+
+    private static String stripLeadingWhitespace(String line) {
+        int i = 0;
+        while (i < line.length() && (Character.isWhitespace(line.charAt(i)) || line.charAt(i) == '\uFEFF')) {
+            i++;
+        }
+        return i == 0 ? line : line.substring(i);
+    }
+
+    /**
+     * Determines the normalized architecture of the CPU from the first processor entry of {@code /proc/cpuinfo},
+     * which reflects the host CPU even when the JVM runs under binary translation.
+     * Returns {@code null} if unknown.
+     */
+    private String getLinuxNativeArch() {
+        final Map<String, String> cpuinfo = new HashMap<String, String>();
+        BufferedReader reader = null;
+        try {
+            InputStream in = fileOperationProvider.readFileIfExists(LINUX_CPUINFO_FILE);
+            if (in == null) {
+                return null;
+            }
+            reader = new BufferedReader(new InputStreamReader(in, "utf-8"));
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final int colonIdx = line.indexOf(':');
+                if (colonIdx < 0) {
+                    if (line.trim().isEmpty() && !cpuinfo.isEmpty()) {
+                        // The end of the first processor entry.
+                        break;
+                    }
+                    continue;
+                }
+                cpuinfo.put(line.substring(0, colonIdx).trim().toLowerCase(Locale.US),
+                            line.substring(colonIdx + 1).trim());
+            }
+        } catch (IOException ignored) {
+            // Just absorb. Don't treat failure to read /proc/cpuinfo as an error.
+            return null;
+        } finally {
+            closeQuietly(reader);
+        }
+
+        final String vendorId = cpuinfo.get("vendor_id");
+        if (vendorId != null && vendorId.toLowerCase(Locale.US).contains("s390")) {
+            return "s390_64";
+        }
+        final String flags = cpuinfo.get("flags");
+        if (vendorId != null && flags != null) {
+            return (' ' + flags + ' ').contains(" lm ") ? "x86_64" : "x86_32";
+        }
+        final String cpuArchitecture = cpuinfo.get("cpu architecture");
+        if (cpuArchitecture != null) {
+            final Matcher m = CPU_ARCHITECTURE_REGEX.matcher(cpuArchitecture);
+            return m.find() && Integer.parseInt(m.group(1)) >= 8 ? "aarch_64" : "arm_32";
+        }
+        final String isa = cpuinfo.get("isa");
+        if (isa != null && isa.startsWith("rv")) {
+            return isa.startsWith("rv64") ? "riscv64" : "riscv";
+        }
+        final String cpu = cpuinfo.get("cpu");
+        if (cpu != null && cpu.toLowerCase(Locale.US).startsWith("power")) {
+            return "ppc_64";
+        }
+        return null;
+    }
+
+    /**
+     * Returns the interpreter of the enabled {@code binfmt_misc} registration that translates the binaries
+     * of the specified architecture, e.g. {@code /usr/bin/qemu-x86_64}, or {@code null} if not found.
+     */
+    private String getLinuxBinaryTranslator(String detectedArch) {
+        final String[] names = fileOperationProvider.listFiles(LINUX_BINFMT_MISC_DIR);
+        if (names == null) {
+            return null;
+        }
+
+        final String qemuArch;
+        if ("x86_64".equals(detectedArch)) {
+            qemuArch = "x86_64";
+        } else if ("x86_32".equals(detectedArch)) {
+            qemuArch = "i386";
+        } else if ("aarch_64".equals(detectedArch)) {
+            qemuArch = "aarch64";
+        } else if ("ppcle_64".equals(detectedArch)) {
+            qemuArch = "ppc64le";
+        } else if ("s390_64".equals(detectedArch)) {
+            qemuArch = "s390x";
+        } else {
+            qemuArch = detectedArch.replace("_32", "").replace("_", "");
+        }
+
+        for (String name : names) {
+            if (!"rosetta".equals(name) && !name.endsWith(qemuArch)) {
+                continue;
+            }
+
+            BufferedReader reader = null;
+            try {
+                InputStream in = fileOperationProvider.readFileIfExists(LINUX_BINFMT_MISC_DIR + name);
+                if (in == null) {
+                    continue;
+                }
+                reader = new BufferedReader(new InputStreamReader(in, "utf-8"));
+
+                boolean enabled = false;
+                String interpreter = null;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if ("enabled".equals(line.trim())) {
+                        enabled = true;
+                    } else if (line.startsWith("interpreter ")) {
+                        interpreter = line.substring("interpreter ".length()).trim();
+                    }
+                }
+                if (enabled) {
+                    return interpreter != null ? interpreter : name;
+                }
+            } catch (IOException ignored) {
+                // Try the next registration.
+            } finally {
+                closeQuietly(reader);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses {@code /proc/self/mountinfo}, whose lines look like the following:
+     * <pre>{@code
+     * 36 35 98:0 /mnt1 /mnt2 rw,noatime master:1 - ext3 /dev/root rw,errors=continue
+     * }</pre>
+     */
+    private List<MountInfo> getLinuxMounts() {
+        if (linuxMounts != null) {
+            return linuxMounts;
+        }
+
+        final List<MountInfo> mounts = new ArrayList<MountInfo>();
+        BufferedReader reader = null;
+        try {
+            InputStream in = fileOperationProvider.readFileIfExists(LINUX_MOUNTINFO_FILE);
+            if (in == null) {
+                return linuxMounts = mounts;
+            }
+            reader = new BufferedReader(new InputStreamReader(in, "utf-8"));
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final String[] fields = line.split(" ");
+                // The optional fields end with a single hyphen.
+                int separatorIdx = -1;
+                for (int i = 6; i < fields.length; i++) {
+                    if ("-".equals(fields[i])) {
+                        separatorIdx = i;
+                        break;
+                    }
+                }
+                if (separatorIdx < 0 || separatorIdx + 1 >= fields.length) {
+                    continue;
+                }
+
+                mounts.add(new MountInfo(fields[2], unescapeMountInfoValue(fields[4]),
+                                         fields[5], fields[separatorIdx + 1]));
+            }
+        } catch (IOException ignored) {
+            // Just absorb. Don't treat failure to read /proc/self/mountinfo as an error.
+        } finally {
+            closeQuietly(reader);
+        }
+        return linuxMounts = mounts;
+    }
+
+    private static String unescapeMountInfoValue(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+
+        // Whitespace and backslashes are escaped as octal numbers, e.g. '\040' for a space.
+        final Matcher matcher = MOUNTINFO_ESCAPE_REGEX.matcher(value);
+        final StringBuffer buf = new StringBuffer(value.length());
+        while (matcher.find()) {
+            final char ch = (char) Integer.parseInt(matcher.group(1), 8);
+            matcher.appendReplacement(buf, Matcher.quoteReplacement(String.valueOf(ch)));
+        }
+        matcher.appendTail(buf);
+        return buf.toString();
+    }
+
+    /**
+     * Returns the mount that contains the specified path, i.e. the one with the longest mount point.
+     * If more than one file system is mounted on the same mount point, the last one wins.
+     */
+    private static MountInfo findMount(List<MountInfo> mounts, String path) {
+        String canonicalPath;
+        try {
+            canonicalPath = new File(path).getCanonicalPath();
+        } catch (IOException ignored) {
+            canonicalPath = new File(path).getAbsolutePath();
+        }
+
+        MountInfo found = null;
+        for (MountInfo m : mounts) {
+            final String mountPoint = m.mountPoint;
+            final boolean contains;
+            if (mountPoint.equals(canonicalPath) || "/".equals(mountPoint)) {
+                contains = true;
+            } else {
+                contains = canonicalPath.startsWith(mountPoint) &&
+                           canonicalPath.charAt(mountPoint.length()) == '/';
+            }
+
+            if (contains && (found == null || mountPoint.length() >= found.mountPoint.length())) {
+                found = m;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns whether the block device with the specified {@code <major>:<minor>} number is rotational,
+     * or {@code null} if unknown, e.g. the file system is not backed by a block device.
+     */
+    private Boolean isRotational(String device) {
+        if (rotationalDevices.containsKey(device)) {
+            return rotationalDevices.get(device);
+        }
+
+        final Boolean rotational = readRotational(device);
+        rotationalDevices.put(device, rotational);
+        return rotational;
+    }
+
+    private Boolean readRotational(String device) {
+        // A partition doesn't have its own queue, so look into its parent disk as well.
+        final String[] candidates = {
+                LINUX_SYS_DEV_BLOCK_DIR + device + "/queue/rotational",
+                LINUX_SYS_DEV_BLOCK_DIR + device + "/../queue/rotational"
+        };
+
+        for (String fileName : candidates) {
+            final String line = readFirstLine(fileName);
+            if (line != null) {
+                return "1".equals(line);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the first line of the specified file without the leading and trailing whitespace,
+     * or {@code null} if the file does not exist or could not be read.
+     */
+    private String readFirstLine(String fileName) {
+        BufferedReader reader = null;
+        try {
+            InputStream in = fileOperationProvider.readFileIfExists(fileName);
+            if (in == null) {
+                return null;
+            }
+            reader = new BufferedReader(new InputStreamReader(in, "utf-8"));
+            final String line = reader.readLine();
+            return line != null ? line.trim() : null;
+        } catch (IOException ignored) {
+            return null;
+        } finally {
+            closeQuietly(reader);
+        }
+    }
+
+    private int determineBitness(String architecture) {
+        // try the widely adopted sun specification first.
+        String bitness = systemPropertyOperationProvider.getSystemProperty("sun.arch.data.model", "");
+
+        if (!bitness.isEmpty() && bitness.matches("[0-9]+")) {
+            return Integer.parseInt(bitness, 10);
+        }
+
+        // bitness from sun.arch.data.model cannot be used. Try the IBM specification.
+        bitness = systemPropertyOperationProvider.getSystemProperty("com.ibm.vm.bitmode", "");
+
+        if (!bitness.isEmpty() && bitness.matches("[0-9]+")) {
+            return Integer.parseInt(bitness, 10);
+        }
+
+        // as a last resort, try to determine the bitness from the architecture.
+      return guessBitnessFromArchitecture(architecture);
+    }
+
+    public static int guessBitnessFromArchitecture(final String arch) {
+        if (arch.contains("64")) {
+            return 64;
+        }
+
+        return 32;
+    }
+
+
+    private static void closeQuietly(Closeable obj) {
+        try {
+            if (obj != null) {
+                obj.close();
+            }
+        } catch (IOException ignored) {
+            // Ignore.
+        }
+    }
+
+    private static class LinuxRelease {
+        final String id;
+        final String version;
+        final Collection<String> like;
+
+        LinuxRelease(String id, String version, Set<String> like) {
+            this.id = id;
+            this.version = version;
+            this.like = Collections.unmodifiableCollection(like);
+        }
+    }
+
+    private static final class LinuxReleaseFile {
+        final String fileName;
+        final String defaultId;
+        final String[] likes;
+        final Pattern versionRegex;
+        final String[] contentIds;
+
+        /**
+         * @param defaultId the ID to use when the first line of the file contains none of {@code contentIds},
+         *                  or {@code null} to give up in such a case.
+         * @param versionRegex the regular expression whose first group is the version in the first line.
+         * @param contentIds the pairs of a lower-case string to look for in the first line of the file and
+         *                   the ID to use when found.
+         */
+        LinuxReleaseFile(String fileName, String defaultId, String[] likes, String versionRegex,
+                         String... contentIds) {
+            this.fileName = fileName;
+            this.defaultId = defaultId;
+            this.likes = likes;
+            this.versionRegex = versionRegex != null ? Pattern.compile(versionRegex) : null;
+            this.contentIds = contentIds;
+        }
+    }
+
+    private static class MountInfo {
+        final String device;
+        final String mountPoint;
+        final String options;
+        final String type;
+
+        MountInfo(String device, String mountPoint, String options, String type) {
+            this.device = device;
+            this.mountPoint = mountPoint;
+            this.options = options;
+            this.type = type;
+        }
+    }
+
+    static final class SimpleSystemPropertyOperations implements SystemPropertyOperationProvider {
+        @Override
+        public String getSystemProperty(String name) {
+            return System.getProperty(name);
+        }
+
+        @Override
+        public String getSystemProperty(String name, String def) {
+            return System.getProperty(name, def);
+        }
+
+        @Override
+        public String setSystemProperty(String name, String value) {
+            // Every execution in a parallel build sets the same values, so skip a write if the property has the
+            // value already. The current value is always consulted, so that a value reset by others, e.g. by the
+            // Maven daemon between builds, is set again.
+            final String oldValue = System.getProperty(name);
+            if (value.equals(oldValue)) {
+                return oldValue;
+            }
+            return System.setProperty(name, value);
+        }
+    }
+
+    /**
+     * Reads the JVM-global system properties, but never modifies them, for the callers that only need the
+     * detected properties in their own {@link Properties}.
+     */
+    static final class ReadOnlySystemPropertyOperations implements SystemPropertyOperationProvider {
+        @Override
+        public String getSystemProperty(String name) {
+            return System.getProperty(name);
+        }
+
+        @Override
+        public String getSystemProperty(String name, String def) {
+            return System.getProperty(name, def);
+        }
+
+        @Override
+        public String setSystemProperty(String name, String value) {
+            return System.getProperty(name);
+        }
+    }
+
+    static final class SimpleFileOperations implements FileOperationProvider {
+        @Override
+        public InputStream readFile(String fileName) throws IOException {
+            return new FileInputStream(fileName);
+        }
+
+        @Override
+        public InputStream readFileIfExists(String fileName) throws IOException {
+            final File file = new File(fileName);
+            if (!file.isFile()) {
+                return null;
+            }
+            return new FileInputStream(file);
+        }
+
+        @Override
+        public String[] listFiles(String dirName) {
+            return new File(dirName).list();
+        }
+    }
+}
@@ -16,6 +16,7 @@
 
 package kr.motd.maven.os;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -33,4 +34,33 @@ public interface FileOperationProvider {
    *             file, or for some other reason cannot be opened for reading.
    */
   InputStream readFile(String filePath) throws IOException;
+
+  /**
+   * Gets a {@link InputStream} for reading the content of the file with the specified path, if it exists.
+   * Unlike {@link #readFile(String)}, a missing file is not an error, and implementations are expected to
+   * detect it without the cost of creating an exception.
+   *
+   * @param      filePath   the system-dependent file path.
+   * @return     the {@link InputStream} that can be read to get the file content, or {@code null} if the
+   *             file does not exist or is not a regular file.
+   * @throws     IOException if the file exists but cannot be opened for reading.
+   */
+  default InputStream readFileIfExists(String filePath) throws IOException {
+    try {
+      return readFile(filePath);
+    } catch (FileNotFoundException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Lists the names of the files in the directory with the specified path.
+   *
+   * @param      dirPath   the system-dependent directory path.
+   * @return     the names of the files in the directory, or {@code null} if the directory does not exist,
+   *             cannot be listed, or this provider does not support listing directories.
+   */
+  default String[] listFiles(String dirPath) {
+    return null;
+  }
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 Trustin Heuiseung Lee.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package kr.motd.maven.os;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Test;
+
+public class CpuSettingsTest {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Test
+    public void readsHostSettingsOnLinux() {
+        final Map<String, String> files = new HashMap<String, String>();
+        files.put("/sys/devices/system/cpu/online", "0-3,6\n");
+        files.put("/proc/loadavg", "2.50 1.00 0.50 3/400 12345\n");
+        files.put("/sys/devices/system/cpu/cpu0/cpufreq/scaling_governor", "powersave\n");
+        files.put("/sys/devices/system/cpu/intel_pstate/no_turbo", "1\n");
+        files.put("/sys/devices/system/cpu/smt/active", "0\n");
+
+        final Properties props = detectCpuSettings("Linux", files);
+        assertEquals(String.valueOf(Runtime.getRuntime().availableProcessors()),
+                     props.getProperty(Detector.DETECTED_CPU_COUNT));
+        assertEquals("5", props.getProperty(Detector.DETECTED_CPU_ONLINE));
+        assertEquals("2.50", props.getProperty(Detector.DETECTED_CPU_LOADAVG));
+        assertEquals("powersave", props.getProperty(Detector.DETECTED_CPU_GOVERNOR));
+        assertEquals("false", props.getProperty(Detector.DETECTED_CPU_BOOST));
+        assertEquals("false", props.getProperty(Detector.DETECTED_CPU_SMT));
+    }
+
+    @Test
+    public void ignoresMalformedOnlineCpus() {
+        final Map<String, String> files = new HashMap<String, String>();
+        files.put("/sys/devices/system/cpu/online", "0-x\n");
+        assertNull(detectCpuSettings("Linux", files).getProperty(Detector.DETECTED_CPU_ONLINE));
+    }
+
+    /**
+     * Other than Linux, no Linux-specific files are read.
+     */
+    @Test
+    public void readsNoFilesOnOtherSystems() {
+        final Properties props = detectCpuSettings("Mac OS X", null);
+        assertEquals(String.valueOf(Runtime.getRuntime().availableProcessors()),
+                     props.getProperty(Detector.DETECTED_CPU_COUNT));
+        assertNull(props.getProperty(Detector.DETECTED_CPU_ONLINE));
+        assertNull(props.getProperty(Detector.DETECTED_CPU_GOVERNOR));
+    }
+
+    private static Properties detectCpuSettings(final String osName, final Map<String, String> files) {
+        final Properties props = new Properties();
+        new Detector(new SystemPropertyOperationProvider() {
+            @Override
+            public String getSystemProperty(String name) {
+                return "os.name".equals(name) ? osName : null;
+            }
+
+            @Override
+            public String getSystemProperty(String name, String def) {
+                final String value = getSystemProperty(name);
+                return value != null ? value : def;
+            }
+
+            @Override
+            public String setSystemProperty(String name, String value) {
+                return null;
+            }
+        }, new FileOperationProvider() {
+            @Override
+            public InputStream readFile(String filePath) throws FileNotFoundException {
+                final InputStream in = readFileIfExists(filePath);
+                if (in == null) {
+                    throw new FileNotFoundException(filePath);
+                }
+                return in;
+            }
+
+            @Override
+            public InputStream readFileIfExists(String filePath) {
+                if (files == null) {
+                    fail("read " + filePath);
+                }
+                final String content = files.get(filePath);
+                return content != null ? new ByteArrayInputStream(content.getBytes(UTF_8)) : null;
+            }
+
+            @Override
+            public String[] listFiles(String dirPath) {
+                return null;
+            }
+        }) {
+            @Override
+            protected void log(String message) {}
+
+            @Override
+            protected void logProperty(String name, String value) {}
+        }.detectCpuSettings(props);
+        return props;
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2026 Trustin Heuiseung Lee.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package kr.motd.maven.os;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Test;
+
+/**
+ * Detects the binary translation of a Linux JVM from a fake {@code /proc/cpuinfo} and {@code binfmt_misc}.
+ */
+public class EmulationTest {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final String X86_64_CPUINFO = "processor\t: 0\n" +
+                                                 "vendor_id\t: GenuineIntel\n" +
+                                                 "flags\t\t: fpu vme de pse tsc msr pae lm\n" +
+                                                 '\n' +
+                                                 "processor\t: 1\n";
+    private static final String AARCH64_CPUINFO = "processor\t: 0\n" +
+                                                  "BogoMIPS\t: 48.00\n" +
+                                                  "CPU implementer\t: 0x61\n" +
+                                                  "CPU architecture: 8\n" +
+                                                  '\n';
+    private static final String QEMU_X86_64 = "enabled\n" +
+                                              "interpreter /usr/bin/qemu-x86_64-static\n" +
+                                              "flags: F\n";
+
+    @Test
+    public void x86_64OnAarch64() {
+        final FakeFiles files = new FakeFiles(AARCH64_CPUINFO);
+        files.addBinfmt("qemu-x86_64", QEMU_X86_64);
+        final FakeDetector detector = new FakeDetector("amd64", null, files);
+        final Properties props = detector.detect();
+
+        assertEquals("aarch_64", props.getProperty(Detector.DETECTED_ARCH_NATIVE));
+        assertEquals("true", props.getProperty(Detector.DETECTED_EMULATED));
+        assertEquals(Collections.singletonList(
+                "The x86_64 JVM is running on the aarch_64 CPU via /usr/bin/qemu-x86_64-static; " +
+                "native code will run emulated."), detector.warnings);
+    }
+
+    @Test
+    public void failsOnEmulatedArch() {
+        final FakeDetector detector = new FakeDetector("amd64", "failOnEmulatedArch",
+                                                       new FakeFiles(AARCH64_CPUINFO));
+        try {
+            detector.detect();
+            fail();
+        } catch (DetectionException e) {
+            assertEquals("The x86_64 JVM is running on the aarch_64 CPU; native code will run emulated.",
+                         e.getMessage());
+        }
+    }
+
+    /**
+     * A 32-bit JVM on a 64-bit CPU of the same family runs natively.
+     */
+    @Test
+    public void x86_32OnX86_64() {
+        final FakeDetector detector = new FakeDetector("i386", "failOnEmulatedArch",
+                                                       new FakeFiles(X86_64_CPUINFO));
+        final Properties props = detector.detect();
+
+        assertEquals("x86_64", props.getProperty(Detector.DETECTED_ARCH_NATIVE));
+        assertEquals("false", props.getProperty(Detector.DETECTED_EMULATED));
+        assertTrue(detector.warnings.isEmpty());
+    }
+
+    @Test
+    public void arm_32OnAarch64() {
+        final FakeDetector detector = new FakeDetector("arm", "failOnEmulatedArch",
+                                                       new FakeFiles(AARCH64_CPUINFO));
+        final Properties props = detector.detect();
+
+        assertEquals("arm_32", props.getProperty(Detector.DETECTED_ARCH));
+        assertEquals("aarch_64", props.getProperty(Detector.DETECTED_ARCH_NATIVE));
+        assertEquals("false", props.getProperty(Detector.DETECTED_EMULATED));
+        assertTrue(detector.warnings.isEmpty());
+    }
+
+    /**
+     * An unknown architecture, allowed by {@code failOnUnknownOS=false}, is not reported as emulated.
+     */
+    @Test
+    public void unknownArch() {
+        final FakeDetector detector = new FakeDetector("weirdarch", "failOnEmulatedArch",
+                                                       new FakeFiles(X86_64_CPUINFO));
+        detector.systemProps.put("failOnUnknownOS", "false");
+        final Properties props = detector.detect();
+
+        assertEquals("unknown", props.getProperty(Detector.DETECTED_ARCH));
+        assertNull(props.getProperty(Detector.DETECTED_ARCH_NATIVE));
+        assertNull(props.getProperty(Detector.DETECTED_EMULATED));
+        assertTrue(detector.warnings.isEmpty());
+    }
+
+    private static final class FakeDetector extends Detector {
+        final Map<String, String> systemProps;
+        final List<String> warnings = new ArrayList<String>();
+
+        FakeDetector(String osArch, String flag, FakeFiles files) {
+            this(new HashMap<String, String>(), osArch, flag, files);
+        }
+
+        private FakeDetector(final Map<String, String> systemProps, String osArch, String flag,
+                             FakeFiles files) {
+            super(new SystemPropertyOperationProvider() {
+                @Override
+                public String getSystemProperty(String name) {
+                    return systemProps.get(name);
+                }
+
+                @Override
+                public String getSystemProperty(String name, String def) {
+                    final String value = systemProps.get(name);
+                    return value != null ? value : def;
+                }
+
+                @Override
+                public String setSystemProperty(String name, String value) {
+                    // Keep the detected properties out of the fake.
+                    return null;
+                }
+            }, files);
+            this.systemProps = systemProps;
+            systemProps.put("os.name", "Linux");
+            systemProps.put("os.arch", osArch);
+            systemProps.put("os.version", "6.1.0");
+            if (flag != null) {
+                systemProps.put(flag, "true");
+            }
+        }
+
+        Properties detect() {
+            final Properties props = new Properties();
+            detect(props, Collections.<String>emptyList());
+            return props;
+        }
+
+        @Override
+        protected void log(String message) {}
+
+        @Override
+        protected void logWarning(String message) {
+            warnings.add(message);
+        }
+
+        @Override
+        protected void logProperty(String name, String value) {}
+    }
+
+    private static final class FakeFiles implements FileOperationProvider {
+        private final Map<String, byte[]> files = new HashMap<String, byte[]>();
+        private final List<String> binfmts = new ArrayList<String>();
+
+        FakeFiles(String cpuinfo) {
+            files.put("/proc/cpuinfo", cpuinfo.getBytes(UTF_8));
+        }
+
+        void addBinfmt(String name, String content) {
+            binfmts.add(name);
+            files.put("/proc/sys/fs/binfmt_misc/" + name, content.getBytes(UTF_8));
+        }
+
+        @Override
+        public InputStream readFile(String filePath) throws FileNotFoundException {
+            final InputStream in = readFileIfExists(filePath);
+            if (in == null) {
+                throw new FileNotFoundException(filePath);
+            }
+            return in;
+        }
+
+        @Override
+        public InputStream readFileIfExists(String filePath) {
+            final byte[] content = files.get(filePath);
+            return content != null ? new ByteArrayInputStream(content) : null;
+        }
+
+        @Override
+        public String[] listFiles(String dirPath) {
+            return "/proc/sys/fs/binfmt_misc/".equals(dirPath) ? binfmts.toArray(new String[0]) : null;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2026 Trustin Heuiseung Lee.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package kr.motd.maven.os;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+/**
+ * Detects the Linux release of each directory in the {@code linux-release} corpus, whose files are served as if
+ * they were in the root directory, and compares the detected properties with its {@code expected.properties}.
+ * The throughput of the detection is measured only if the {@value #BENCHMARK_PROPERTY} system property is
+ * {@code true}, e.g. {@code mvn test -Dos.detector.benchmark=true}.
+ */
+public class LinuxReleaseTest {
+
+    private static final List<String> CLASSIFIER_WITH_LIKES = Arrays.asList("rhel", "debian", "suse");
+    private static final String EXPECTED_FILE_NAME = "expected.properties";
+    private static final int NUM_PARSES = 2000;
+    private static final String BENCHMARK_PROPERTY = "os.detector.benchmark";
+
+    @Test
+    public void detectsCorpus() throws Exception {
+        for (File c : corpus()) {
+            assertEquals(c.getName(), expected(c), detect(new CorpusFileOperations(c)));
+        }
+    }
+
+    @Test
+    public void parsesCorpusRepeatedly() throws Exception {
+        assumeTrue(Boolean.getBoolean(BENCHMARK_PROPERTY));
+        for (File c : corpus()) {
+            final CorpusFileOperations files = new CorpusFileOperations(c);
+            final Map<String, String> expected = expected(c);
+
+            // Warm up, and then measure.
+            for (int i = 0; i < NUM_PARSES; i++) {
+                detect(files);
+            }
+            final long startTimeNanos = System.nanoTime();
+            for (int i = 0; i < NUM_PARSES; i++) {
+                assertEquals(c.getName(), expected, detect(files));
+            }
+            final long elapsedNanos = System.nanoTime() - startTimeNanos;
+
+            System.out.printf("%-24s %9.0f detections/s%n", c.getName(), NUM_PARSES * 1e9 / elapsedNanos);
+        }
+    }
+
+    private static File[] corpus() throws URISyntaxException {
+        final URL url = LinuxReleaseTest.class.getResource("linux-release");
+        assertNotNull("linux-release corpus", url);
+        final File[] cases = new File(url.toURI()).listFiles();
+        assertNotNull(cases);
+        assertFalse(cases.length == 0);
+        Arrays.sort(cases);
+        return cases;
+    }
+
+    private static Map<String, String> expected(File dir) throws IOException {
+        final Properties props = new Properties();
+        final InputStream in = new FileInputStream(new File(dir, EXPECTED_FILE_NAME));
+        try {
+            props.load(in);
+        } finally {
+            in.close();
+        }
+        return toMap(props);
+    }
+
+    /**
+     * Returns {@code os.detected.classifier} and {@code os.detected.release.*} detected from the specified files.
+     */
+    private static Map<String, String> detect(FileOperationProvider files) {
+        final Properties props = new Properties();
+        new Detector(new LinuxSystemProperties(), files) {
+            @Override
+            protected void log(String message) {}
+
+            @Override
+            protected void logProperty(String name, String value) {}
+        }.detect(props, CLASSIFIER_WITH_LIKES);
+
+        final Map<String, String> detected = new TreeMap<String, String>();
+        for (String name : props.stringPropertyNames()) {
+            if (name.equals(Detector.DETECTED_CLASSIFIER) || name.startsWith(Detector.DETECTED_RELEASE)) {
+                detected.put(name, props.getProperty(name));
+            }
+        }
+        return detected;
+    }
+
+    private static Map<String, String> toMap(Properties props) {
+        final Map<String, String> map = new TreeMap<String, String>();
+        for (String name : props.stringPropertyNames()) {
+            map.put(name, props.getProperty(name));
+        }
+        return map;
+    }
+
+    /**
+     * Serves the files under a corpus directory, e.g. {@code <dir>/etc/os-release} as {@code /etc/os-release}.
+     * The files are read into memory once, so that the parsing dominates the repeated detections.
+     */
+    private static final class CorpusFileOperations implements FileOperationProvider {
+        private final Map<String, byte[]> files = new HashMap<String, byte[]>();
+        private final String[] etcFileNames;
+
+        CorpusFileOperations(File dir) throws IOException {
+            addFiles(dir, "");
+            final String[] names = new File(dir, "etc").list();
+            etcFileNames = names != null ? names : new String[0];
+        }
+
+        private void addFiles(File dir, String path) throws IOException {
+            final File[] children = dir.listFiles();
+            if (children == null) {
+                return;
+            }
+            for (File f : children) {
+                if (f.isDirectory()) {
+                    addFiles(f, path + '/' + f.getName());
+                } else if (!path.isEmpty()) {
+                    files.put(path + '/' + f.getName(), Files.readAllBytes(f.toPath()));
+                }
+            }
+        }
+
+        @Override
+        public InputStream readFile(String filePath) throws IOException {
+            final InputStream in = readFileIfExists(filePath);
+            if (in == null) {
+                throw new FileNotFoundException(filePath);
+            }
+            return in;
+        }
+
+        @Override
+        public InputStream readFileIfExists(String filePath) {
+            final byte[] content = files.get(filePath);
+            return content != null ? new ByteArrayInputStream(content) : null;
+        }
+
+        @Override
+        public String[] listFiles(String dirPath) {
+            return "/etc/".equals(dirPath) ? etcFileNames.clone() : null;
+        }
+    }
+
+    private static final class LinuxSystemProperties implements SystemPropertyOperationProvider {
+        @Override
+        public String getSystemProperty(String name) {
+            if ("os.name".equals(name)) {
+                return "Linux";
+            }
+            if ("os.arch".equals(name)) {
+                return "amd64";
+            }
+            if ("os.version".equals(name)) {
+                return "6.1.0-17-amd64";
+            }
+            return null;
+        }
+
+        @Override
+        public String getSystemProperty(String name, String def) {
+            final String value = getSystemProperty(name);
+            return value != null ? value : def;
+        }
+
+        @Override
+        public String setSystemProperty(String name, String value) {
+            return null;
+        }
+    }
+}
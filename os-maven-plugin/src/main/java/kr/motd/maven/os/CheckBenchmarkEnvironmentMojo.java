@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 Trustin Heuiseung Lee.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package kr.motd.maven.os;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Checks whether the current host is fit for running benchmarks, and sets the CPU settings that affect the
+ * stability of benchmark results to various project properties.
+ * <ul>
+ * <li>{@code os.detected.cpu.count} - the number of processors available to the JVM</li>
+ * <li>{@code os.detected.cpu.online} - the number of online processors of the host (Linux only)</li>
+ * <li>{@code os.detected.cpu.loadavg} - the system load average of the host for the last minute</li>
+ * <li>{@code os.detected.cpu.governor} - the cpufreq scaling governor (Linux only)</li>
+ * <li>{@code os.detected.cpu.boost} - whether turbo boost is enabled (Linux only)</li>
+ * <li>{@code os.detected.cpu.smt} - whether simultaneous multithreading is active (Linux only)</li>
+ * <li>{@code os.detected.benchmark.ready} - {@code false} if the scaling governor is not {@code performance},
+ *     turbo boost is enabled or the host is busy, {@code true} otherwise</li>
+ * </ul>
+ * The load average counts the tasks of the whole host, so it is compared with the number of the online processors
+ * of the host rather than the ones available to a container. Where the number of the online processors is not
+ * available, i.e. on other than Linux, the number of the processors available to the JVM is used instead.
+ * Unlike the {@code detect} goal, this goal does not set the detected properties as system properties.
+ */
+@Mojo(name = "check-benchmark-environment", defaultPhase = LifecyclePhase.VALIDATE, threadSafe = true)
+public class CheckBenchmarkEnvironmentMojo extends AbstractMojo {
+
+    static final String DETECTED_BENCHMARK_READY = "os.detected.benchmark.ready";
+
+    @Parameter(defaultValue = "${project}", readonly = true)
+    @SuppressWarnings("UnusedDeclaration")
+    private MavenProject project;
+
+    /**
+     * Whether to fail the build if the host is unfit for running benchmarks.
+     */
+    @Parameter(property = "os.benchmark.failOnUnfit", defaultValue = "false")
+    @SuppressWarnings("UnusedDeclaration")
+    private boolean failOnUnfit;
+
+    /**
+     * The maximum load average per online processor of a host that is fit for running benchmarks.
+     */
+    @Parameter(property = "os.benchmark.maxLoadPerCpu", defaultValue = "0.5")
+    @SuppressWarnings("UnusedDeclaration")
+    private double maxLoadPerCpu;
+
+    private final Detector detector = new MojoDetector(this);
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        final Properties props = project.getProperties();
+        detector.detectCpuSettings(props);
+
+        final List<String> problems = new ArrayList<String>();
+        final String governor = props.getProperty(Detector.DETECTED_CPU_GOVERNOR);
+        if (governor != null && !"performance".equals(governor)) {
+            problems.add("the CPU frequency scaling governor is '" + governor + "' rather than 'performance'");
+        }
+        if ("true".equals(props.getProperty(Detector.DETECTED_CPU_BOOST))) {
+            problems.add("turbo boost is enabled, so the CPU frequency varies with the temperature and the load");
+        }
+        final String loadavg = props.getProperty(Detector.DETECTED_CPU_LOADAVG);
+        if (loadavg != null) {
+            final int cpuCount = Integer.parseInt(props.getProperty(
+                    Detector.DETECTED_CPU_ONLINE, props.getProperty(Detector.DETECTED_CPU_COUNT)));
+            final double maxLoad = maxLoadPerCpu * cpuCount;
+            if (Double.parseDouble(loadavg) > maxLoad) {
+                problems.add("the load average " + loadavg + " is greater than " + maxLoad +
+                             " (" + maxLoadPerCpu + " per CPU)");
+            }
+        }
+
+        final boolean ready = problems.isEmpty();
+        props.setProperty(DETECTED_BENCHMARK_READY, String.valueOf(ready));
+        if (ready) {
+            getLog().info(DETECTED_BENCHMARK_READY + ": true");
+            return;
+        }
+
+        getLog().warn(DETECTED_BENCHMARK_READY + ": false");
+        for (String p : problems) {
+            getLog().warn("Benchmark results may be unstable: " + p);
+        }
+        if (failOnUnfit) {
+            throw new MojoExecutionException("unfit for running benchmarks: " + problems);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2026 Trustin Heuiseung Lee.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package kr.motd.maven.os;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.RepositoryUtils;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.PlexusContainer;
+import org.codehaus.plexus.logging.Logger;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactRequest;
+
+/**
+ * Resolves the platform-dependent artifacts of a reactor concurrently, so that they are in the local repository
+ * before the modules that need them are built.
+ */
+final class DependencyPreResolver {
+
+    /**
+     * @param projectDependencies the project dependencies to resolve, and the projects whose remote project
+     *                            repositories to resolve them from.
+     * @param pluginDependencies the build plugin dependencies to resolve, and the projects whose remote plugin
+     *                           repositories to resolve them from.
+     */
+    static void preResolve(Logger logger, PlexusContainer container, MavenSession session,
+                           Map<Dependency, MavenProject> projectDependencies,
+                           Map<Dependency, MavenProject> pluginDependencies) {
+        // Resolution is done in a separate class so that the extension is not impacted by the case where
+        // the runtime does not have Aether, just like RepositorySessionInjector.
+        try {
+            preResolve(logger, container.lookup(RepositorySystem.class), session.getRepositorySession(),
+                       projectDependencies, pluginDependencies);
+        } catch (Throwable t) {
+            logger.warn("Failed to pre-resolve the platform-dependent artifacts.", t);
+        }
+    }
+
+    /**
+     * Returns the number of the resolved artifacts.
+     */
+    static int preResolve(Logger logger, RepositorySystem system, RepositorySystemSession repoSession,
+                          Map<Dependency, MavenProject> projectDependencies,
+                          Map<Dependency, MavenProject> pluginDependencies) throws InterruptedException {
+        final List<ArtifactRequest> requests =
+                new ArrayList<ArtifactRequest>(projectDependencies.size() + pluginDependencies.size());
+        for (Map.Entry<Dependency, MavenProject> e : projectDependencies.entrySet()) {
+            requests.add(newRequest(repoSession, e.getKey(), e.getValue().getRemoteProjectRepositories()));
+        }
+        for (Map.Entry<Dependency, MavenProject> e : pluginDependencies.entrySet()) {
+            requests.add(newRequest(repoSession, e.getKey(), e.getValue().getRemotePluginRepositories()));
+        }
+
+        return preResolve(logger, system, repoSession, requests);
+    }
+
+    private static ArtifactRequest newRequest(RepositorySystemSession repoSession, Dependency dependency,
+                                              List<RemoteRepository> repositories) {
+        final org.eclipse.aether.graph.Dependency d =
+                RepositoryUtils.toDependency(dependency, repoSession.getArtifactTypeRegistry());
+        return new ArtifactRequest(d.getArtifact(), repositories, null);
+    }
+
+    private static int preResolve(final Logger logger, final RepositorySystem system,
+                                  final RepositorySystemSession repoSession,
+                                  List<ArtifactRequest> requests) throws InterruptedException {
+        if (requests.isEmpty()) {
+            return 0;
+        }
+
+        final long startTimeNanos = System.nanoTime();
+        final int numThreads = Math.min(requests.size(), Runtime.getRuntime().availableProcessors());
+        final ExecutorService executor = Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+            private final AtomicInteger nextId = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                final Thread t = new Thread(r, "os-maven-plugin-pre-resolver-" + nextId.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+
+        try {
+            final List<Future<?>> futures = new ArrayList<Future<?>>(requests.size());
+            for (final ArtifactRequest req : requests) {
+                futures.add(executor.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception {
+                        return system.resolveArtifact(repoSession, req);
+                    }
+                }));
+            }
+
+            int numResolved = 0;
+            Throwable firstCause = null;
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                    numResolved++;
+                } catch (ExecutionException e) {
+                    // The module that needs the artifact will report the failure when it is built.
+                    logger.debug("Failed to pre-resolve " + requests.get(i).getArtifact(), e.getCause());
+                    if (firstCause == null) {
+                        firstCause = e.getCause();
+                    }
+                }
+            }
+
+            logger.info("Pre-resolved " + numResolved + " of " + requests.size() +
+                        " platform-dependent artifact(s) in " +
+                        (System.nanoTime() - startTimeNanos) / 1000000 + " ms");
+            if (firstCause != null) {
+                // Warn only once, rather than for every artifact, which are likely to fail for the same reason.
+                logger.warn("Failed to pre-resolve " + (requests.size() - numResolved) +
+                            " platform-dependent artifact(s); run with -X to see all failures: " +
+                            firstCause.getMessage());
+            }
+            return numResolved;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private DependencyPreResolver() {}
+}
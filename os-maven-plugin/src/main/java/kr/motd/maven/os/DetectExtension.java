@@ -0,0 +1,736 @@
+/*
+ * Copyright 2014 Trustin Heuiseung Lee.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package kr.motd.maven.os;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+
+import org.apache.maven.AbstractMavenLifecycleParticipant;
+import org.apache.maven.MavenExecutionException;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Exclusion;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.ModelBase;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.PlexusContainer;
+import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.util.InterpolationFilterReader;
+
+/**
+ * Detects the current operating system and architecture, normalizes them, and sets them to various project
+ * properties.
+ * <ul>
+ * <li>{@code os.detected.name} - normalized {@code os.name} (e.g. {@code linux}, {@code osx})</li>
+ * <li>{@code os.detected.arch} - normalized {@code os.arch} (e.g. {@code x86_64}, {@code x86_32})</li>
+ * <li>{@code os.detected.bitness} - bitness from wither {@code sun.arch.data.model} or {@code com.ibm.vm.bitmode} or {@code os.arch}
+ *     (e.g. {@code 64}, {@code 32})</li>
+ * <li>{@code os.detected.version} - {@code os.detected.version.major}.{@code os.detected.version.minor}</li>
+ * <li>{@code os.detected.version.major} - major part of {@code os.version} (integer value)</li>
+ * <li>{@code os.detected.version.minor} - minor part of {@code os.version} (integer value)</li>
+ * <li>{@code os.detected.classifier} - a shortcut for {@code 'os.detectedName'.'os.detectedArch'}
+ *     (e.g. {@code linux-x86_64}). If the property {@code ${os.detection.classifierWithLikes}} is set,
+ *     the first value for which a corresponding {@code os.detected.release.like.{variant}} property
+ *     exists will be appended to the classifier (e.g. building on ubuntu with
+ *     {@code os.detection.classifierWithLikes = "debian,rhel"} would result in
+ *     {@code os.detected.classifier = "linux-x86_64-debian"}).</li>
+ * <li>{@code os.detected.release} - provides the ID for the linux release (if available).</li>
+ * <li>{@code os.detected.release.version} - provides version ID for this linux release. Only
+ *     available if ${os.detected.release} is also available. </li>
+ * <li>{@code os.detected.release.like.{variant}} - Identifies a linux release that this release is
+ *     "like" (for example, ubuntu is "like" debian). Only available if ${os.detected.release} is also
+ *     available. An entry will always be made for os.detected.release.like.${os.detected.release}. </li>
+ * <li>{@code os.detected.fs.tmpdir.*} - the type, mount options and rotational-ness of the file system of
+ *     {@code java.io.tmpdir} (Linux only).</li>
+ * <li>{@code os.detected.fs.builddir.*} - the same for the build directory of each project, if the
+ *     {@code os.detection.buildDirectoryFileSystems} property is {@code true} (Linux only).</li>
+ * <li>{@code os.detected.arch.native} - normalized architecture of the CPU, which differs from
+ *     {@code os.detected.arch} when the JVM runs under binary translation such as qemu-user or Rosetta
+ *     (Linux only).</li>
+ * <li>{@code os.detected.emulated} - {@code true} if the JVM runs under binary translation (Linux only).</li>
+ * <li>{@code os.detected.fingerprint} - the SHA-256 hash of all other detected properties except
+ *     {@code os.detected.fs.*}, which can be used as a part of a build cache key.</li>
+ * </ul>
+ * <p>
+ * When loaded as a core extension (i.e. via {@code .mvn/extensions.xml}), the properties are injected into the
+ * session before the projects are read, so that Maven resolves {@code ${os.detected.*}} during its own model
+ * interpolation. When loaded as a build extension, the project models have already been built by the time this
+ * extension is invoked, so their dependencies are interpolated after the fact.
+ */
+@Component(role = AbstractMavenLifecycleParticipant.class, hint = "detect-os")
+public class DetectExtension extends AbstractMavenLifecycleParticipant {
+
+    /**
+     * The property that makes this extension set the detected properties to the JVM-global system properties
+     * as well. It is {@code false} by default, so that concurrent builds in a long-lived JVM such as the
+     * Maven daemon do not interfere with each other.
+     */
+    static final String SET_SYSTEM_PROPERTIES_PROPERTY = "os.detection.setSystemProperties";
+
+    /**
+     * The property that makes this extension resolve the platform-dependent artifacts of all projects
+     * concurrently once the projects are read, rather than one by one as each module is built.
+     */
+    static final String PRE_RESOLVE_PROPERTY = "os.detection.preResolve";
+
+    /**
+     * The property that specifies the file to write the modules that depend on the detected platform into.
+     * See {@link PlatformDependencyReport}.
+     */
+    static final String PLATFORM_REPORT_PROPERTY = "os.detection.platformReport";
+
+    /**
+     * The property that makes this extension detect the file system of the build directory of each project.
+     * It is {@code false} by default, because it costs a lookup in the mount table for every project of every
+     * build, while only a few builds tune themselves for the storage.
+     */
+    static final String BUILD_DIRECTORY_FILE_SYSTEMS_PROPERTY = "os.detection.buildDirectoryFileSystems";
+
+    /**
+     * The detected properties, shared by all sessions in the JVM. The key consists of all inputs to the
+     * detection, so that a session with different inputs does not get the result of another.
+     */
+    private static final ConcurrentMap<String, Properties> detectionCache =
+            new ConcurrentHashMap<String, Properties>();
+
+    private static final String[] DETECTION_INPUT_PROPERTIES = {
+            "os.name", "os.arch", "os.version", "sun.arch.data.model", "com.ibm.vm.bitmode", "failOnUnknownOS",
+            "failOnEmulatedArch"
+    };
+
+    private final Logger logger;
+    @Nullable
+    private final PlexusContainer container;
+
+    /**
+     * The properties injected into a session at its start. A session in this map has had its projects built with
+     * the detected properties already in place.
+     */
+    private final Map<MavenSession, InjectedProperties> sessionStartProperties =
+            Collections.synchronizedMap(new WeakHashMap<MavenSession, InjectedProperties>());
+
+    /**
+     * The detector of the file systems of each session, which reads the mount table only once per session.
+     */
+    private final Map<MavenSession, Detector> fileSystemDetectors =
+            Collections.synchronizedMap(new WeakHashMap<MavenSession, Detector>());
+
+    /**
+     * The number of the models interpolated by the last {@link #afterProjectsRead(MavenSession)}, which is
+     * {@code 0} if Maven has interpolated them already.
+     */
+    private volatile int numInterpolatedModels;
+
+    public DetectExtension(final Logger logger) {
+        this(logger, null);
+    }
+
+    @Inject
+    public DetectExtension(final Logger logger, @Nullable final PlexusContainer container) {
+        this.logger = logger;
+        this.container = container;
+    }
+
+    @Override
+    public void afterSessionStart(MavenSession session) throws MavenExecutionException {
+        final List<String> classifierWithLikes = getClassifierWithLikes(session);
+        final Map<String, String> dict = injectProperties(session, classifierWithLikes);
+        sessionStartProperties.put(session, new InjectedProperties(classifierWithLikes, dict));
+    }
+
+    @Override
+    public void afterProjectsRead(MavenSession session) throws MavenExecutionException {
+        final List<String> classifierWithLikes = getClassifierWithLikes(session);
+        final InjectedProperties injected = sessionStartProperties.remove(session);
+        numInterpolatedModels = 0;
+        if (injected != null && injected.classifierWithLikes.equals(classifierWithLikes)) {
+            // The projects were built with the same properties we would inject now, so Maven has interpolated
+            // the models already. Only the project properties need to be exposed.
+            if (session.getProjects() != null) {
+                final long startTimeNanos = System.nanoTime();
+                for (MavenProject p : session.getProjects()) {
+                    setProperties(injected.dict, p.getModel());
+                }
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Set the detected properties to " + session.getProjects().size() +
+                                 " project(s) without interpolation in " +
+                                 (System.nanoTime() - startTimeNanos) / 1000000 + " ms");
+                }
+            }
+        } else {
+            final Map<String, String> dict = injectProperties(session, classifierWithLikes);
+
+            /// Perform the interpolation for the properties of all dependencies.
+            if (session.getProjects() != null) {
+                final long startTimeNanos = System.nanoTime();
+                // The projects in a reactor usually share their parents, so visit each model only once.
+                final Set<ModelBase> visitedModels =
+                        Collections.newSetFromMap(new IdentityHashMap<ModelBase, Boolean>());
+                for (MavenProject p : session.getProjects()) {
+                    interpolate(dict, p, visitedModels);
+                }
+                numInterpolatedModels = visitedModels.size();
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Interpolated " + visitedModels.size() + " model(s) of " +
+                                 session.getProjects().size() + " project(s) in " +
+                                 (System.nanoTime() - startTimeNanos) / 1000000 + " ms");
+                }
+            }
+        }
+
+        final LayeredProperties sessionProps = new LayeredProperties(session.getUserProperties(),
+                                                                     session.getSystemProperties());
+
+        // Detect the file system of the build directory of each project, which can be relocated per project.
+        if (Boolean.parseBoolean(sessionProps.getProperty(BUILD_DIRECTORY_FILE_SYSTEMS_PROPERTY))) {
+            detectBuildDirectories(session);
+        }
+        // The session will not be visited again.
+        fileSystemDetectors.remove(session);
+
+        final boolean preResolve = Boolean.parseBoolean(sessionProps.getProperty(PRE_RESOLVE_PROPERTY));
+        final String platformReport = sessionProps.getProperty(PLATFORM_REPORT_PROPERTY);
+        if (session.getProjects() == null || !preResolve && (platformReport == null || platformReport.isEmpty())) {
+            return;
+        }
+
+        final Map<MavenProject, PlatformDependencies> platformDependencies =
+                new LinkedHashMap<MavenProject, PlatformDependencies>();
+        for (MavenProject p : session.getProjects()) {
+            platformDependencies.put(p, PlatformDependencies.find(p));
+        }
+        if (platformReport != null && !platformReport.isEmpty()) {
+            PlatformDependencyReport.write(logger, session, platformDependencies,
+                                           resolveFile(session, platformReport));
+        }
+        if (preResolve) {
+            preResolve(session, platformDependencies);
+        }
+    }
+
+    int numInterpolatedModels() {
+        return numInterpolatedModels;
+    }
+
+    /**
+     * Resolves the distinct platform-dependent artifacts of all projects in the reactor concurrently.
+     */
+    private void preResolve(MavenSession session, Map<MavenProject, PlatformDependencies> platformDependencies) {
+        if (container == null) {
+            logger.warn("Cannot pre-resolve the platform-dependent artifacts without a container.");
+            return;
+        }
+
+        final Set<String> reactorProjects = new HashSet<String>();
+        for (MavenProject p : session.getProjects()) {
+            reactorProjects.add(p.getGroupId() + ':' + p.getArtifactId() + ':' + p.getVersion());
+        }
+
+        // Project and plugin dependencies are resolved from different repositories, so they are kept apart.
+        final Set<String> projectCoordinates = new HashSet<String>();
+        final Set<String> pluginCoordinates = new HashSet<String>();
+        final Map<Dependency, MavenProject> projectDependencies = new LinkedHashMap<Dependency, MavenProject>();
+        final Map<Dependency, MavenProject> pluginDependencies = new LinkedHashMap<Dependency, MavenProject>();
+        for (Map.Entry<MavenProject, PlatformDependencies> e : platformDependencies.entrySet()) {
+            final MavenProject p = e.getKey();
+            addPreResolvable(projectDependencies, projectCoordinates, reactorProjects, p,
+                             e.getValue().projectDependencies);
+            addPreResolvable(pluginDependencies, pluginCoordinates, reactorProjects, p,
+                             e.getValue().pluginDependencies);
+        }
+
+        DependencyPreResolver.preResolve(logger, container, session, projectDependencies, pluginDependencies);
+    }
+
+    private static void addPreResolvable(Map<Dependency, MavenProject> found, Set<String> coordinates,
+                                         Set<String> reactorProjects, MavenProject project,
+                                         List<Dependency> dependencies) {
+        for (Dependency d : dependencies) {
+            final String version = d.getVersion();
+            if (version == null || version.contains("${") ||
+                version.startsWith("[") || version.startsWith("(") ||
+                "system".equals(d.getScope()) ||
+                reactorProjects.contains(d.getGroupId() + ':' + d.getArtifactId() + ':' + version)) {
+                // Leave them to Maven.
+                continue;
+            }
+
+            if (coordinates.add(d.getManagementKey() + ':' + version)) {
+                found.put(d, project);
+            }
+        }
+    }
+
+    private Map<String, String> injectProperties(
+            MavenSession session, List<String> classifierWithLikes) throws MavenExecutionException {
+        final Properties sessionSystemProps = session.getSystemProperties();
+        final Properties detectedProps;
+        final Properties snapshotProps = readSnapshot(session, classifierWithLikes);
+        if (snapshotProps != null) {
+            // Use the recorded properties instead of detecting them again.
+            detectedProps = snapshotProps;
+        } else {
+            // Detect the OS and CPU architecture.
+            detectedProps = detect(session, classifierWithLikes);
+        }
+
+        // Detect the file systems the build is likely to be I/O bound on.
+        // They depend on the session's directories, so they are never cached nor read from a snapshot.
+        final Properties fsProps = detectFileSystems(fileSystemDetector(session), session);
+
+        // Generate the dictionary.
+        final Map<String, String> dict = toDictionary(detectedProps);
+        for (Map.Entry<Object, Object> e : fsProps.entrySet()) {
+            dict.put(e.getKey().toString(), e.getValue().toString());
+        }
+
+        // Inject the current session.
+        injectSession(session, dict);
+
+        // Inject the JVM-global system properties only if asked to.
+        final LayeredProperties sessionProps = new LayeredProperties(session.getUserProperties(),
+                                                                     session.getSystemProperties());
+        if (Boolean.parseBoolean(sessionProps.getProperty(SET_SYSTEM_PROPERTIES_PROPERTY))) {
+            final SystemPropertyOperationProvider systemProps = new Detector.SimpleSystemPropertyOperations();
+            for (Map.Entry<Object, Object> e : detectedProps.entrySet()) {
+                systemProps.setSystemProperty(e.getKey().toString(), e.getValue().toString());
+            }
+        }
+        return dict;
+    }
+
+    /**
+     * Returns the detected properties for the specified session, reusing the result of another session
+     * in the same JVM if the inputs to the detection are the same.
+     */
+    private Properties detect(
+            MavenSession session, List<String> classifierWithLikes) throws MavenExecutionException {
+        final Properties sessionSystemProps = session.getSystemProperties();
+        final StringBuilder cacheKeyBuilder = new StringBuilder();
+        for (String name : DETECTION_INPUT_PROPERTIES) {
+            cacheKeyBuilder.append(sessionSystemProps.getProperty(name)).append('\n');
+        }
+        cacheKeyBuilder.append(classifierWithLikes);
+        final String cacheKey = cacheKeyBuilder.toString();
+
+        final Properties cachedProps = detectionCache.get(cacheKey);
+        if (cachedProps != null) {
+            logger.info("Using the detected platform: " + cachedProps.getProperty(Detector.DETECTED_CLASSIFIER));
+            return cachedProps;
+        }
+
+        // The detector reads the session system properties only, so the detected ones are all it sets.
+        final Properties detectedProps = new Properties();
+        try {
+            newDetector(sessionSystemProps).detect(detectedProps, classifierWithLikes);
+        } catch (DetectionException e) {
+            // There's no current project yet when loaded as a core extension.
+            final MavenProject currentProject = session.getCurrentProject();
+            throw new MavenExecutionException(e.getMessage(),
+                                              currentProject != null ? currentProject.getFile() : null);
+        }
+
+        final String fingerprint = fingerprint(detectedProps);
+        detectedProps.setProperty(Detector.DETECTED_FINGERPRINT, fingerprint);
+        if (logger.isInfoEnabled()) {
+            logger.info(Detector.DETECTED_FINGERPRINT + ": " + fingerprint);
+        }
+
+        final Properties oldDetectedProps = detectionCache.putIfAbsent(cacheKey, detectedProps);
+        return oldDetectedProps != null ? oldDetectedProps : detectedProps;
+    }
+
+    /**
+     * Returns the hex-encoded SHA-256 hash of the specified detected properties in the order of their names,
+     * so that the same platform always gets the same fingerprint.
+     */
+    static String fingerprint(Properties detectedProps) {
+        final Map<String, String> sortedProps = new TreeMap<String, String>();
+        for (Map.Entry<Object, Object> e : detectedProps.entrySet()) {
+            sortedProps.put(e.getKey().toString(), e.getValue().toString());
+        }
+
+        final StringBuilder buf = new StringBuilder();
+        for (Map.Entry<String, String> e : sortedProps.entrySet()) {
+            buf.append(e.getKey()).append('=').append(e.getValue()).append('\n');
+        }
+
+        final byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(buf.toString().getBytes("UTF-8"));
+        } catch (Exception e) {
+            // Should not reach here; every JVM supports SHA-256 and UTF-8.
+            throw (Error) new Error().initCause(e);
+        }
+
+        final StringBuilder hex = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            hex.append(Character.forDigit((b >>> 4) & 0xF, 16));
+            hex.append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Reads the snapshot specified by {@link DetectionSnapshot#SNAPSHOT_PROPERTY}, if any.
+     *
+     * @return the recorded properties, or {@code null} if no snapshot is specified or the snapshot is unusable.
+     */
+    @Nullable
+    private Properties readSnapshot(MavenSession session, List<String> classifierWithLikes) {
+        final Properties sessionSystemProps = session.getSystemProperties();
+        final LayeredProperties sessionProps =
+                new LayeredProperties(session.getUserProperties(), sessionSystemProps);
+        final String path = sessionProps.getProperty(DetectionSnapshot.SNAPSHOT_PROPERTY);
+        if (path == null || path.isEmpty()) {
+            return null;
+        }
+
+        final File file = resolveFile(session, path);
+        try {
+            final Properties snapshotProps = DetectionSnapshot.read(
+                    file, sessionSystemProps.getProperty("os.name"), sessionSystemProps.getProperty("os.arch"),
+                    classifierWithLikes);
+            if (logger.isInfoEnabled()) {
+                logger.info("Using the detected platform from " + file + ": " +
+                            snapshotProps.getProperty(Detector.DETECTED_CLASSIFIER));
+            }
+            return snapshotProps;
+        } catch (IOException e) {
+            logger.warn("Failed to read the detection snapshot; detecting the platform instead: " + e);
+        } catch (DetectionException e) {
+            logger.warn("Ignoring the detection snapshot; detecting the platform instead: " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Resolves the specified path against the execution root directory of the specified session,
+     * unless it is absolute.
+     */
+    static File resolveFile(MavenSession session, String path) {
+        final File file = new File(path);
+        if (file.isAbsolute() || session.getExecutionRootDirectory() == null) {
+            return file;
+        }
+        return new File(session.getExecutionRootDirectory(), path);
+    }
+
+    /**
+     * Detects the file system of {@code java.io.tmpdir} of the specified session.
+     */
+    private static Properties detectFileSystems(Detector detector, MavenSession session) {
+        final Properties sessionSystemProps = session.getSystemProperties();
+        final Map<String, String> paths = new LinkedHashMap<String, String>();
+        if (sessionSystemProps.getProperty("java.io.tmpdir") != null) {
+            paths.put("tmpdir", sessionSystemProps.getProperty("java.io.tmpdir"));
+        }
+        final Properties fsProps = new Properties();
+        detector.detectFileSystems(fsProps, paths);
+        return fsProps;
+    }
+
+    /**
+     * Sets {@code os.detected.fs.builddir.*} to the properties of each project in the specified session.
+     * All projects share the mount table, which is read only once.
+     */
+    private void detectBuildDirectories(MavenSession session) {
+        if (session.getProjects() == null) {
+            return;
+        }
+
+        final Detector detector = fileSystemDetector(session);
+        for (MavenProject p : session.getProjects()) {
+            final String buildDirectory = p.getBuild() != null ? p.getBuild().getDirectory() : null;
+            if (buildDirectory != null) {
+                detector.detectFileSystems(p.getProperties(),
+                                           Collections.singletonMap("builddir", buildDirectory));
+            }
+        }
+    }
+
+    /**
+     * Returns the detector of the file systems of the specified session, whose mount table is shared by
+     * {@code java.io.tmpdir} and the build directories of all projects. It logs at the debug level only,
+     * because the file systems of a large reactor would flood the output otherwise.
+     */
+    private Detector fileSystemDetector(MavenSession session) {
+        synchronized (fileSystemDetectors) {
+            Detector detector = fileSystemDetectors.get(session);
+            if (detector == null) {
+                detector = new Detector(new SessionSystemPropertyOperations(session.getSystemProperties()),
+                                        new Detector.SimpleFileOperations()) {
+                    @Override
+                    protected void log(String message) {
+                        logger.debug(message);
+                    }
+
+                    @Override
+                    protected void logProperty(String name, String value) {
+                        if (logger.isDebugEnabled()) {
+                            logger.debug(name + ": " + value);
+                        }
+                    }
+                };
+                fileSystemDetectors.put(session, detector);
+            }
+            return detector;
+        }
+    }
+
+    private Detector newDetector(Properties sessionSystemProps) {
+        return new Detector(new SessionSystemPropertyOperations(sessionSystemProps),
+                            new Detector.SimpleFileOperations()) {
+            @Override
+            protected void log(String message) {
+                logger.info(message);
+            }
+
+            @Override
+            protected void logWarning(String message) {
+                logger.warn(message);
+            }
+
+            @Override
+            protected void logProperty(String name, String value) {
+                if (logger.isInfoEnabled()) {
+                    logger.info(name + ": " + value);
+                }
+            }
+        };
+    }
+
+    private static Map<String, String> toDictionary(Properties props) {
+        final Map<String, String> dict = new LinkedHashMap<String, String>();
+        dict.put(Detector.DETECTED_NAME, props.getProperty(Detector.DETECTED_NAME));
+        dict.put(Detector.DETECTED_ARCH, props.getProperty(Detector.DETECTED_ARCH));
+        dict.put(Detector.DETECTED_BITNESS, props.getProperty(Detector.DETECTED_BITNESS));
+        dict.put(Detector.DETECTED_CLASSIFIER, props.getProperty(Detector.DETECTED_CLASSIFIER));
+        dict.put(Detector.DETECTED_FINGERPRINT, props.getProperty(Detector.DETECTED_FINGERPRINT));
+        if (props.getProperty(Detector.DETECTED_ARCH_NATIVE) != null) {
+            dict.put(Detector.DETECTED_ARCH_NATIVE, props.getProperty(Detector.DETECTED_ARCH_NATIVE));
+            dict.put(Detector.DETECTED_EMULATED, props.getProperty(Detector.DETECTED_EMULATED));
+        }
+        for (Map.Entry<Object, Object> entry : props.entrySet()) {
+            if (entry.getKey().toString().startsWith(Detector.DETECTED_RELEASE)) {
+                dict.put(entry.getKey().toString(), entry.getValue().toString());
+            }
+        }
+        return dict;
+    }
+
+    /**
+     * Inspects the session's user and project properties for the {@link
+     * DetectMojo#CLASSIFIER_WITH_LIKES_PROPERTY} and separates the property into a list.
+     * The user properties take precedence over the project properties, as they do for {@link DetectMojo}.
+     */
+    private static List<String> getClassifierWithLikes(MavenSession session) {
+        // Check to see if the user or the project defined the property.
+        final MavenProject currentProject = session.getCurrentProject();
+        final LayeredProperties props = new LayeredProperties(
+                session.getUserProperties(), currentProject != null ? currentProject.getProperties() : null);
+
+        return DetectMojo.getClassifierWithLikes(
+            props.getProperty(DetectMojo.CLASSIFIER_WITH_LIKES_PROPERTY));
+    }
+
+    private void injectSession(MavenSession session, Map<String, String> dict) {
+        final Properties sessionExecProps = session.getSystemProperties();
+        for (Map.Entry<String, String> entry : dict.entrySet()) {
+            sessionExecProps.setProperty(entry.getKey(), String.valueOf(entry.getValue()));
+        }
+
+        // Work around the 'NoClassDefFoundError' or 'ClassNotFoundException' related with Aether in IntelliJ IDEA.
+        for (StackTraceElement e: new Exception().getStackTrace()) {
+            if (String.valueOf(e.getClassName()).startsWith("org.jetbrains.idea.maven")) {
+                return;
+            }
+        }
+
+        // Injection of RepositorySession is done in a separate class so that the extension is not impacted by
+        // the case where the runtime does not have Aether.
+        RepositorySessionInjector.injectRepositorySession(logger, session, dict);
+    }
+
+    private static void interpolate(Map<String, String> dict, MavenProject p, Set<ModelBase> visitedModels) {
+        if (p == null) {
+            return;
+        }
+
+        interpolate(dict, p.getParent(), visitedModels);
+        if (visitedModels.add(p.getModel())) {
+            interpolate(dict, p.getModel());
+        }
+        for (ModelBase model: p.getActiveProfiles()) {
+            if (visitedModels.add(model)) {
+                interpolate(dict, model);
+            }
+        }
+    }
+
+    private static void interpolate(Map<String, String> dict, ModelBase model) {
+        setProperties(dict, model);
+        interpolate(dict, model.getDependencies());
+
+        final DependencyManagement depMgmt = model.getDependencyManagement();
+        if (depMgmt != null) {
+            interpolate(dict, depMgmt.getDependencies());
+        }
+
+        if (model instanceof Model) {
+            final Build build = ((Model) model).getBuild();
+            if (build != null) {
+                for (Plugin bp: build.getPlugins()) {
+                    interpolate(dict, bp.getDependencies());
+                }
+                if (build.getPluginManagement() != null) {
+                    for (Plugin bp: build.getPluginManagement().getPlugins()) {
+                        interpolate(dict, bp.getDependencies());
+                    }
+                }
+            }
+        }
+    }
+
+    private static void setProperties(Map<String, String> dict, ModelBase model) {
+        final Properties modelProps = model.getProperties();
+        for (Map.Entry<String, String> e : dict.entrySet()) {
+            modelProps.setProperty(e.getKey(), String.valueOf(e.getValue()));
+        }
+    }
+
+    private static void interpolate(Map<String, String> dict, Iterable<Dependency> dependencies) {
+        if (dependencies == null) {
+            return;
+        }
+
+        for (Dependency d: dependencies) {
+            d.setGroupId(interpolate(dict, d.getGroupId()));
+            d.setArtifactId(interpolate(dict, d.getArtifactId()));
+            d.setVersion(interpolate(dict, d.getVersion()));
+            d.setClassifier(interpolate(dict, d.getClassifier()));
+            d.setSystemPath(interpolate(dict, d.getSystemPath()));
+            for (Exclusion e: d.getExclusions()) {
+                e.setGroupId(interpolate(dict, e.getGroupId()));
+                e.setArtifactId(interpolate(dict, e.getArtifactId()));
+            }
+        }
+    }
+
+    @Nullable
+    static String interpolate(Map<String, String> dict, @Nullable String value) {
+        if (value == null) {
+            return null;
+        }
+
+        for (;;) {
+            if (!value.contains("${")) {
+                // Nothing to interpolate.
+                break;
+            }
+
+            @SuppressWarnings({ "unchecked", "rawtypes" })
+            final InterpolationFilterReader reader = new InterpolationFilterReader(
+                    new StringReader(value), (Map<String, Object>) (Map) dict);
+            final StringWriter writer = new StringWriter(value.length());
+            for (;;) {
+                final int ch;
+                try {
+                    ch = reader.read();
+                } catch (IOException e) {
+                    // Should not reach here.
+                    throw (Error) new Error().initCause(e);
+                }
+
+                if (ch == -1) {
+                    break;
+                }
+                writer.write(ch);
+            }
+
+            final String newValue = writer.toString();
+            if (value.equals(newValue)) {
+                // No interpolatable properties left.
+                break;
+            }
+
+            // Interpolated at least one variable.
+            // Try again just in case the interpolation introduced another variable.
+            value = newValue;
+        }
+
+        return value;
+    }
+
+    private static final class InjectedProperties {
+        final List<String> classifierWithLikes;
+        final Map<String, String> dict;
+
+        InjectedProperties(List<String> classifierWithLikes, Map<String, String> dict) {
+            this.classifierWithLikes = classifierWithLikes;
+            this.dict = dict;
+        }
+    }
+
+    /**
+     * Reads the system properties of a session rather than the JVM-global ones, and never modifies them.
+     * The detected properties are injected into the session by {@link #injectSession(MavenSession, Map)}.
+     */
+    private static final class SessionSystemPropertyOperations implements SystemPropertyOperationProvider {
+        private final Properties sessionSystemProps;
+
+        SessionSystemPropertyOperations(Properties sessionSystemProps) {
+            this.sessionSystemProps = sessionSystemProps;
+        }
+
+        @Override
+        public String getSystemProperty(String name) {
+            return sessionSystemProps.getProperty(name);
+        }
+
+        @Override
+        public String getSystemProperty(String name, String def) {
+            return sessionSystemProps.getProperty(name, def);
+        }
+
+        @Override
+        public String setSystemProperty(String name, String value) {
+            return sessionSystemProps.getProperty(name);
+        }
+    }
+}
@@ -15,12 +15,17 @@
  */
 package kr.motd.maven.os;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 
 import javax.annotation.Nullable;
 
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
@@ -55,6 +60,10 @@ import org.apache.maven.project.MavenProject;
 public class DetectMojo extends AbstractMojo {
     static final String CLASSIFIER_WITH_LIKES_PROPERTY = "os.detection.classifierWithLikes";
 
+    @Parameter(defaultValue = "${session}", readonly = true)
+    @SuppressWarnings("UnusedDeclaration")
+    private MavenSession session;
+
     @Parameter(defaultValue = "${project}", readonly = true)
     @SuppressWarnings("UnusedDeclaration")
     private MavenProject project;
@@ -63,30 +72,74 @@ public class DetectMojo extends AbstractMojo {
     @SuppressWarnings("UnusedDeclaration")
     private String classifierWithLikes;
 
-    private final Detector detector = new Detector() {
-        @Override
-        protected void log(String message) {
-            getLog().info(message);
-        }
+    /**
+     * The detection snapshot recorded by the {@code snapshot} goal, which is used instead of detecting the
+     * platform if it matches the current {@code os.name} and {@code os.arch}. A relative path is resolved against
+     * the execution root directory, as the extension does, rather than against the directory of each module.
+     */
+    @Parameter(property = DetectionSnapshot.SNAPSHOT_PROPERTY)
+    @SuppressWarnings("UnusedDeclaration")
+    private String snapshot;
 
-        @Override
-        protected void logProperty(String name, String value) {
-            final Log log = getLog();
-            if (log.isInfoEnabled()) {
-                log.info(name + ": " + value);
-            }
-        }
-    };
+    private final SystemPropertyOperationProvider systemPropertyOperationProvider;
+    private final Detector detector;
+
+    public DetectMojo() {
+        this(new Detector.SimpleSystemPropertyOperations(), new Detector.SimpleFileOperations());
+    }
+
+    DetectMojo(SystemPropertyOperationProvider systemPropertyOperationProvider,
+               FileOperationProvider fileOperationProvider) {
+        this.systemPropertyOperationProvider = systemPropertyOperationProvider;
+        detector = new MojoDetector(this, systemPropertyOperationProvider, fileOperationProvider);
+    }
 
     @Override
     public void execute() throws MojoExecutionException {
+        final List<String> likes = getClassifierWithLikes(classifierWithLikes);
+        if (snapshot != null && !snapshot.isEmpty() &&
+            replaySnapshot(DetectExtension.resolveFile(session, snapshot), likes)) {
+            return;
+        }
+
         try {
-            detector.detect(project.getProperties(), getClassifierWithLikes(classifierWithLikes));
+            detector.detect(project.getProperties(), likes);
         } catch (DetectionException e) {
             throw new MojoExecutionException(e.getMessage());
         }
     }
 
+    private boolean replaySnapshot(File snapshotFile, List<String> likes) {
+        final Properties snapshotProps;
+        try {
+            snapshotProps = DetectionSnapshot.read(
+                    snapshotFile, systemPropertyOperationProvider.getSystemProperty("os.name"),
+                    systemPropertyOperationProvider.getSystemProperty("os.arch"), likes);
+        } catch (IOException e) {
+            getLog().warn("Failed to read the detection snapshot; detecting the platform instead: " + e);
+            return false;
+        } catch (DetectionException e) {
+            getLog().warn("Ignoring the detection snapshot; detecting the platform instead: " + e.getMessage());
+            return false;
+        }
+
+        final Log log = getLog();
+        if (log.isInfoEnabled()) {
+            log.info("Using the detected platform from " + snapshotFile + ": " +
+                     snapshotProps.getProperty(Detector.DETECTED_CLASSIFIER));
+        }
+
+        // Set the same properties as the detector would.
+        final Properties projectProps = project.getProperties();
+        for (Map.Entry<Object, Object> e : snapshotProps.entrySet()) {
+            final String key = e.getKey().toString();
+            final String value = e.getValue().toString();
+            projectProps.setProperty(key, value);
+            systemPropertyOperationProvider.setSystemProperty(key, value);
+        }
+        return true;
+    }
+
     /**
      * Takes a comma-separated value of os "likes" to be included in the generated classifier and
      * returns them as a list.
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 Trustin Heuiseung Lee.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package kr.motd.maven.os;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.annotation.Nullable;
+
+/**
+ * Reads and writes a detection snapshot, which is a properties file that contains the properties detected on one
+ * machine, so that the identical machines can use them without detecting them again. A snapshot records the
+ * {@code os.name}, {@code os.arch} and {@code os.detection.classifierWithLikes} it was recorded with, and it is
+ * rejected when any of them does not match the current ones. {@code os.detected.fs.*} are never recorded nor read,
+ * because they depend on the directories of each build.
+ */
+final class DetectionSnapshot {
+
+    /**
+     * The property that specifies the path of the snapshot to use instead of detecting the platform.
+     */
+    static final String SNAPSHOT_PROPERTY = "os.detection.snapshot";
+
+    private static final String VERSION_KEY = "os.detection.snapshot.version";
+    private static final String VERSION = "1";
+    private static final String OS_NAME_KEY = "os.name";
+    private static final String OS_ARCH_KEY = "os.arch";
+
+    private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+
+    /**
+     * Writes the specified detected properties to the specified file. The entries are sorted and the file has no
+     * timestamp, so that the same platform always gets the same file. The file is rewritten only when its content
+     * has changed.
+     *
+     * @return {@code true} if the file has been written, or {@code false} if it was up to date.
+     */
+    static boolean write(File file, Properties detectedProps, @Nullable String osName, @Nullable String osArch,
+                         List<String> classifierWithLikes) throws IOException {
+        final Properties props = new Properties();
+        for (Map.Entry<Object, Object> e : detectedProps.entrySet()) {
+            if (!e.getKey().toString().startsWith(Detector.DETECTED_FS_PREFIX)) {
+                props.put(e.getKey(), e.getValue());
+            }
+        }
+        props.setProperty(VERSION_KEY, VERSION);
+        props.setProperty(OS_NAME_KEY, String.valueOf(osName));
+        props.setProperty(OS_ARCH_KEY, String.valueOf(osArch));
+        props.setProperty(DetectMojo.CLASSIFIER_WITH_LIKES_PROPERTY, join(classifierWithLikes));
+
+        // Properties.store() escapes line breaks in values, so every non-comment line is an entry.
+        final StringWriter writer = new StringWriter();
+        props.store(writer, null);
+        final List<String> lines = new ArrayList<String>();
+        for (String line : writer.toString().split("\n")) {
+            line = line.trim();
+            if (!line.isEmpty() && line.charAt(0) != '#') {
+                lines.add(line);
+            }
+        }
+        Collections.sort(lines);
+
+        final StringBuilder buf = new StringBuilder();
+        buf.append("# Detection snapshot generated by os-maven-plugin. Do not edit.\n");
+        for (String line : lines) {
+            buf.append(line).append('\n');
+        }
+
+        final byte[] content = buf.toString().getBytes(ISO_8859_1);
+        if (file.isFile() && Arrays.equals(content, Files.readAllBytes(file.toPath()))) {
+            return false;
+        }
+
+        final File parent = file.getAbsoluteFile().getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("failed to create a directory: " + parent);
+        }
+        Files.write(file.toPath(), content);
+        return true;
+    }
+
+    /**
+     * Reads the detected properties from the specified file.
+     *
+     * @throws DetectionException if the snapshot is of an unsupported version or does not match the specified
+     *                            {@code os.name}, {@code os.arch} or {@code os.detection.classifierWithLikes}.
+     */
+    static Properties read(File file, @Nullable String osName, @Nullable String osArch,
+                           List<String> classifierWithLikes) throws IOException {
+        final Properties props = new Properties();
+        final InputStream in = Files.newInputStream(file.toPath());
+        try {
+            props.load(in);
+        } finally {
+            in.close();
+        }
+
+        if (!VERSION.equals(props.getProperty(VERSION_KEY))) {
+            throw new DetectionException(
+                    "unsupported snapshot version: " + props.getProperty(VERSION_KEY) + " (" + file + ')');
+        }
+        checkMatch(file, props, OS_NAME_KEY, String.valueOf(osName));
+        checkMatch(file, props, OS_ARCH_KEY, String.valueOf(osArch));
+        checkMatch(file, props, DetectMojo.CLASSIFIER_WITH_LIKES_PROPERTY, join(classifierWithLikes));
+        if (props.getProperty(Detector.DETECTED_CLASSIFIER) == null) {
+            throw new DetectionException("snapshot without " + Detector.DETECTED_CLASSIFIER + " (" + file + ')');
+        }
+
+        final Properties detectedProps = new Properties();
+        for (Map.Entry<Object, Object> e : props.entrySet()) {
+            final String key = e.getKey().toString();
+            if (key.startsWith("os.detected.") && !key.startsWith(Detector.DETECTED_FS_PREFIX)) {
+                detectedProps.put(e.getKey(), e.getValue());
+            }
+        }
+        return detectedProps;
+    }
+
+    private static void checkMatch(File file, Properties props, String key, String expectedValue) {
+        final String actualValue = props.getProperty(key);
+        if (!expectedValue.equals(actualValue)) {
+            throw new DetectionException(
+                    "stale snapshot: " + key + " is '" + actualValue + "', but expected '" + expectedValue +
+                    "' (" + file + ')');
+        }
+    }
+
+    private static String join(List<String> values) {
+        final StringBuilder buf = new StringBuilder();
+        for (String v : values) {
+            if (buf.length() > 0) {
+                buf.append(',');
+            }
+            buf.append(v);
+        }
+        return buf.toString();
+    }
+
+    private DetectionSnapshot() {}
+}
@@ -28,6 +28,11 @@ public class EclipseStartup extends Detector implements IStartup {
         logger.log(new Status(IStatus.INFO, ID, message));
     }
 
+    @Override
+    protected void logWarning(String message) {
+        logger.log(new Status(IStatus.WARNING, ID, message));
+    }
+
     @Override
     protected void logProperty(String name, String value) {
         logger.log(new Status(IStatus.INFO, ID, name + ": " + value));
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2026 Trustin Heuiseung Lee.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package kr.motd.maven.os;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Properties;
+
+import javax.annotation.Nullable;
+import javax.lang.model.SourceVersion;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Generates a Java source file that contains the detected platform as compile-time constants, so that the
+ * application can tell which platform it was built for without detecting it again at runtime.
+ * The properties set by the extension or the {@code detect} goal are used if available. Otherwise, the
+ * platform is detected the same way as the {@code detect} goal does, except that the detected properties are
+ * not set as system properties.
+ * The source file is rewritten only when its content has changed.
+ */
+@Mojo(name = "generate-sources", defaultPhase = LifecyclePhase.GENERATE_SOURCES, threadSafe = true)
+public class GenerateSourcesMojo extends AbstractMojo {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Parameter(defaultValue = "${project}", readonly = true)
+    @SuppressWarnings("UnusedDeclaration")
+    private MavenProject project;
+
+    /**
+     * The fully qualified name of the class to generate, e.g. {@code com.example.BuildPlatform}.
+     */
+    @Parameter(property = "os.generatedClassName", required = true)
+    @SuppressWarnings("UnusedDeclaration")
+    private String className;
+
+    /**
+     * The directory where the source file is generated. It is added to the compile source roots.
+     */
+    @Parameter(defaultValue = "${project.build.directory}/generated-sources/os", required = true)
+    @SuppressWarnings("UnusedDeclaration")
+    private File outputDirectory;
+
+    @Parameter(property = DetectMojo.CLASSIFIER_WITH_LIKES_PROPERTY,
+               defaultValue = "${" + DetectMojo.CLASSIFIER_WITH_LIKES_PROPERTY + '}')
+    @SuppressWarnings("UnusedDeclaration")
+    private String classifierWithLikes;
+
+    private final Detector detector = new MojoDetector(this);
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (!isValidClassName(className)) {
+            throw new MojoExecutionException("invalid className: " + className);
+        }
+
+        final Properties props = project.getProperties();
+        if (props.getProperty(Detector.DETECTED_CLASSIFIER) == null) {
+            try {
+                detector.detect(props, DetectMojo.getClassifierWithLikes(classifierWithLikes));
+            } catch (DetectionException e) {
+                throw new MojoExecutionException(e.getMessage());
+            }
+        }
+
+        final File file = new File(outputDirectory, className.replace('.', File.separatorChar) + ".java");
+        final byte[] content = generate(props).getBytes(UTF_8);
+        try {
+            if (Arrays.equals(content, readFile(file))) {
+                getLog().debug("Skipping the up-to-date source file: " + file);
+            } else {
+                writeFile(file, content);
+                getLog().info("Generated: " + file);
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("failed to generate " + file, e);
+        }
+
+        project.addCompileSourceRoot(outputDirectory.getPath());
+    }
+
+    private String generate(Properties props) {
+        final int lastDotIdx = className.lastIndexOf('.');
+        final String simpleClassName = className.substring(lastDotIdx + 1);
+
+        final StringBuilder buf = new StringBuilder();
+        buf.append("// Generated by os-maven-plugin. Do not edit.\n");
+        if (lastDotIdx > 0) {
+            buf.append("package ").append(className, 0, lastDotIdx).append(";\n\n");
+        }
+        buf.append("/**\n");
+        buf.append(" * The platform detected when this class was generated.\n");
+        buf.append(" */\n");
+        buf.append("public final class ").append(simpleClassName).append(" {\n\n");
+        appendConstant(buf, "NAME", props.getProperty(Detector.DETECTED_NAME));
+        appendConstant(buf, "ARCH", props.getProperty(Detector.DETECTED_ARCH));
+        buf.append("    public static final int BITNESS = ")
+           .append(Integer.parseInt(props.getProperty(Detector.DETECTED_BITNESS)))
+           .append(";\n");
+        appendConstant(buf, "VERSION", props.getProperty(Detector.DETECTED_VERSION));
+        appendConstant(buf, "CLASSIFIER", props.getProperty(Detector.DETECTED_CLASSIFIER));
+        appendConstant(buf, "RELEASE", props.getProperty(Detector.DETECTED_RELEASE));
+        appendConstant(buf, "RELEASE_VERSION", props.getProperty(Detector.DETECTED_RELEASE_VERSION));
+        buf.append('\n');
+        buf.append("    private ").append(simpleClassName).append("() {}\n");
+        buf.append("}\n");
+        return buf.toString();
+    }
+
+    static void appendConstant(StringBuilder buf, String name, @Nullable String value) {
+        buf.append("    public static final String ").append(name).append(" = ");
+        if (value == null) {
+            buf.append("null");
+        } else {
+            buf.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                final char ch = value.charAt(i);
+                if (ch == '"' || ch == '\\') {
+                    buf.append('\\').append(ch);
+                } else if (ch == '\n') {
+                    buf.append("\\n");
+                } else if (ch == '\r') {
+                    buf.append("\\r");
+                } else if (ch == '\t') {
+                    buf.append("\\t");
+                } else if (ch < 0x20) {
+                    // Not a Unicode escape, which javac would translate into a line break before lexing.
+                    buf.append(String.format("\\%03o", (int) ch));
+                } else if (ch > 0x7e) {
+                    buf.append(String.format("\\u%04x", (int) ch));
+                } else {
+                    buf.append(ch);
+                }
+            }
+            buf.append('"');
+        }
+        buf.append(";\n");
+    }
+
+    /**
+     * Returns {@code true} if the specified name is a qualified name of a class, which does not contain a keyword
+     * or a literal such as {@code class}, {@code int} or {@code true}.
+     */
+    static boolean isValidClassName(@Nullable String className) {
+        return className != null && SourceVersion.isName(className);
+    }
+
+    @Nullable
+    private static byte[] readFile(File file) throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+        return Files.readAllBytes(file.toPath());
+    }
+
+    private static void writeFile(File file, byte[] content) throws IOException {
+        final File parent = file.getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("failed to create a directory: " + parent);
+        }
+        Files.write(file.toPath(), content);
+    }
+}
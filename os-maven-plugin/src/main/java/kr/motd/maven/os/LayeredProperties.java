@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 Trustin Heuiseung Lee.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package kr.motd.maven.os;
+
+import java.util.Properties;
+
+import javax.annotation.Nullable;
+
+/**
+ * Looks up a property from a list of {@link Properties} without copying them. It is not a {@link Properties}
+ * itself, so that no method can see only a part of the layers.
+ */
+final class LayeredProperties {
+
+    private final Properties[] layers;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param layers the layers to look up, in the order of precedence. {@code null} layers are ignored.
+     */
+    LayeredProperties(Properties... layers) {
+        this.layers = layers;
+    }
+
+    @Nullable
+    String getProperty(String key) {
+        for (Properties layer : layers) {
+            if (layer != null) {
+                final String value = layer.getProperty(key);
+                if (value != null) {
+                    return value;
+                }
+            }
+        }
+        return null;
+    }
+}
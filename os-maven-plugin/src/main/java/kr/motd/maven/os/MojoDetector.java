@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 Trustin Heuiseung Lee.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package kr.motd.maven.os;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * A {@link Detector} that logs into the log of a mojo.
+ */
+final class MojoDetector extends Detector {
+
+    private final AbstractMojo mojo;
+
+    /**
+     * Creates a new instance that never sets the detected properties as system properties, for the goals
+     * that only need them in their own {@link java.util.Properties}.
+     */
+    MojoDetector(AbstractMojo mojo) {
+        this(mojo, new ReadOnlySystemPropertyOperations(), new SimpleFileOperations());
+    }
+
+    MojoDetector(AbstractMojo mojo, SystemPropertyOperationProvider systemPropertyOperationProvider,
+                 FileOperationProvider fileOperationProvider) {
+        super(systemPropertyOperationProvider, fileOperationProvider);
+        this.mojo = mojo;
+    }
+
+    @Override
+    protected void log(String message) {
+        mojo.getLog().info(message);
+    }
+
+    @Override
+    protected void logWarning(String message) {
+        mojo.getLog().warn(message);
+    }
+
+    @Override
+    protected void logProperty(String name, String value) {
+        final Log log = mojo.getLog();
+        if (log.isInfoEnabled()) {
+            log.info(name + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright 2026 Trustin Heuiseung Lee.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package kr.motd.maven.os;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import org.apache.maven.model.Activation;
+import org.apache.maven.model.ActivationProperty;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Exclusion;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.ModelBase;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.Profile;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Finds the dependencies of a project whose coordinates or exclusions depend on the detected platform, by looking
+ * for {@code ${os.detected.*}} in the original models of the project and its parents. A model property whose value
+ * refers to {@code ${os.detected.*}}, directly or via other model properties, makes the dependencies that refer to
+ * the model property platform-dependent as well. A platform-dependent dependency is matched with the effective
+ * dependencies by its groupId, artifactId and classifier, so that the variants of the same artifact that do not
+ * depend on the platform are not reported. Also finds the profiles of the project and its parents that are activated by the platform, i.e. by an
+ * {@code os.detected.*} property or by {@code <os>}.
+ */
+final class PlatformDependencies {
+
+    private static final String DETECTED_PROPERTY_PREFIX = "${os.detected.";
+    private static final String DETECTED_PROPERTY_NAME_PREFIX = "os.detected.";
+    private static final String UNRESOLVED_CLASSIFIER = "${";
+
+    /**
+     * The effective dependencies of the project, which are resolved from the remote project repositories.
+     */
+    final List<Dependency> projectDependencies;
+
+    /**
+     * The effective dependencies of the build plugins of the project, which are resolved from the remote plugin
+     * repositories.
+     */
+    final List<Dependency> pluginDependencies;
+
+    /**
+     * The IDs of the profiles of the project and its parents that are activated by the platform, whether they
+     * are active or not in the current build.
+     */
+    final List<String> platformProfiles;
+
+    private PlatformDependencies(List<Dependency> projectDependencies, List<Dependency> pluginDependencies,
+                                 List<String> platformProfiles) {
+        this.projectDependencies = projectDependencies;
+        this.pluginDependencies = pluginDependencies;
+        this.platformProfiles = platformProfiles;
+    }
+
+    /**
+     * Returns {@code true} if the project does not depend on the detected platform.
+     */
+    boolean isEmpty() {
+        return projectDependencies.isEmpty() && pluginDependencies.isEmpty() && platformProfiles.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "dependencies: " + projectDependencies + ", plugin dependencies: " + pluginDependencies +
+               ", profiles: " + platformProfiles;
+    }
+
+    /**
+     * Returns the effective dependencies of the specified project, and of its build plugins, that depend on the
+     * detected platform.
+     */
+    static PlatformDependencies find(MavenProject project) {
+        final List<Model> models = new ArrayList<Model>();
+        for (MavenProject p = project; p != null; p = p.getParent()) {
+            if (p.getOriginalModel() != null) {
+                models.add(p.getOriginalModel());
+            }
+        }
+
+        // Find the model properties that refer to the detected properties,
+        // and the profiles that are activated by the platform.
+        final Map<String, List<String>> modelProperties = new HashMap<String, List<String>>();
+        final List<String> platformProfiles = new ArrayList<String>();
+        for (Model m : models) {
+            addModelProperties(modelProperties, m);
+            for (Profile profile : m.getProfiles()) {
+                addModelProperties(modelProperties, profile);
+                if (isActivatedByPlatform(profile)) {
+                    platformProfiles.add(profile.getId());
+                }
+            }
+        }
+        final Set<String> platformPropertyRefs = new HashSet<String>();
+        platformPropertyRefs.add(DETECTED_PROPERTY_PREFIX);
+        final Map<String, Boolean> platformProperties = new HashMap<String, Boolean>();
+        for (String name : modelProperties.keySet()) {
+            if (isPlatformProperty(name, modelProperties, platformProperties, new HashSet<String>())) {
+                platformPropertyRefs.add("${" + name + '}');
+            }
+        }
+
+        // Find the groupId:artifactId:classifier of the platform-dependent dependencies.
+        final Map<String, String> dict = newDictionary(project);
+        final Set<String> keys = new HashSet<String>();
+        for (Model m : models) {
+            addPlatformDependencyKeys(keys, platformPropertyRefs, dict, m);
+            for (Profile profile : m.getProfiles()) {
+                addPlatformDependencyKeys(keys, platformPropertyRefs, dict, profile);
+            }
+        }
+
+        final List<Dependency> projectDependencies = new ArrayList<Dependency>();
+        final List<Dependency> pluginDependencies = new ArrayList<Dependency>();
+        if (!keys.isEmpty()) {
+            addEffectiveDependencies(projectDependencies, keys, project.getDependencies());
+            for (Plugin p : project.getBuildPlugins()) {
+                addEffectiveDependencies(pluginDependencies, keys, p.getDependencies());
+            }
+        }
+        return new PlatformDependencies(projectDependencies, pluginDependencies, platformProfiles);
+    }
+
+    private static boolean isActivatedByPlatform(Profile profile) {
+        final Activation activation = profile.getActivation();
+        if (activation == null) {
+            return false;
+        }
+        if (activation.getOs() != null) {
+            return true;
+        }
+
+        final ActivationProperty property = activation.getProperty();
+        if (property == null || property.getName() == null) {
+            return false;
+        }
+        // '!' negates the activation, e.g. <name>!os.detected.release</name>.
+        final String name = property.getName().trim();
+        return (name.startsWith("!") ? name.substring(1) : name).startsWith(DETECTED_PROPERTY_NAME_PREFIX);
+    }
+
+    /**
+     * Adds the properties of the specified model. A property may have different values in a project, its parents
+     * and their profiles, so all values are kept.
+     */
+    private static void addModelProperties(Map<String, List<String>> modelProperties, ModelBase model) {
+        for (Map.Entry<Object, Object> e : model.getProperties().entrySet()) {
+            final String name = e.getKey().toString();
+            List<String> values = modelProperties.get(name);
+            if (values == null) {
+                values = new ArrayList<String>(1);
+                modelProperties.put(name, values);
+            }
+            values.add(String.valueOf(e.getValue()));
+        }
+    }
+
+    /**
+     * Returns {@code true} if any value of the specified model property refers to {@code ${os.detected.*}},
+     * directly or via other model properties, e.g. {@code ${a}} &rarr; {@code ${b}} &rarr;
+     * {@code ${os.detected.classifier}}.
+     *
+     * @param platformProperties the properties whose result is known already
+     * @param visited the properties being resolved, which stops a cyclic reference
+     */
+    private static boolean isPlatformProperty(String name, Map<String, List<String>> modelProperties,
+                                              Map<String, Boolean> platformProperties, Set<String> visited) {
+        final Boolean known = platformProperties.get(name);
+        if (known != null) {
+            return known;
+        }
+        if (!visited.add(name)) {
+            return false;
+        }
+
+        boolean platformProperty = false;
+        final List<String> values = modelProperties.get(name);
+        if (values != null) {
+            loop:
+            for (String value : values) {
+                if (value.contains(DETECTED_PROPERTY_PREFIX)) {
+                    platformProperty = true;
+                    break;
+                }
+                for (String ref : propertyRefs(value)) {
+                    if (isPlatformProperty(ref, modelProperties, platformProperties, visited)) {
+                        platformProperty = true;
+                        break loop;
+                    }
+                }
+            }
+        }
+
+        visited.remove(name);
+        // A property in a cycle is not known to be platform-independent until the cycle is resolved.
+        if (platformProperty || visited.isEmpty()) {
+            platformProperties.put(name, platformProperty);
+        }
+        return platformProperty;
+    }
+
+    /**
+     * Returns the names of the properties the specified value refers to, e.g. {@code a} and {@code b} for
+     * {@code ${a}-${b}}.
+     */
+    private static List<String> propertyRefs(String value) {
+        List<String> refs = null;
+        for (int start = value.indexOf("${"); start >= 0; start = value.indexOf("${", start + 2)) {
+            final int end = value.indexOf('}', start + 2);
+            if (end < 0) {
+                break;
+            }
+            if (refs == null) {
+                refs = new ArrayList<String>(2);
+            }
+            refs.add(value.substring(start + 2, end));
+        }
+        return refs != null ? refs : Collections.<String>emptyList();
+    }
+
+    private static void addPlatformDependencyKeys(Set<String> keys, Set<String> platformPropertyRefs,
+                                                  Map<String, String> dict, ModelBase model) {
+        addPlatformDependencyKeys(keys, platformPropertyRefs, dict, model.getDependencies());
+
+        final DependencyManagement depMgmt = model.getDependencyManagement();
+        if (depMgmt != null) {
+            addPlatformDependencyKeys(keys, platformPropertyRefs, dict, depMgmt.getDependencies());
+        }
+
+        if (model instanceof Model) {
+            final Build build = ((Model) model).getBuild();
+            if (build != null) {
+                for (Plugin bp : build.getPlugins()) {
+                    addPlatformDependencyKeys(keys, platformPropertyRefs, dict, bp.getDependencies());
+                }
+                if (build.getPluginManagement() != null) {
+                    for (Plugin bp : build.getPluginManagement().getPlugins()) {
+                        addPlatformDependencyKeys(keys, platformPropertyRefs, dict, bp.getDependencies());
+                    }
+                }
+            }
+        }
+    }
+
+    private static void addPlatformDependencyKeys(Set<String> keys, Set<String> platformPropertyRefs,
+                                                  Map<String, String> dict, List<Dependency> dependencies) {
+        for (Dependency d : dependencies) {
+            boolean platformDependent =
+                    refersTo(platformPropertyRefs, d.getGroupId()) ||
+                    refersTo(platformPropertyRefs, d.getArtifactId()) ||
+                    refersTo(platformPropertyRefs, d.getVersion()) ||
+                    refersTo(platformPropertyRefs, d.getType()) ||
+                    refersTo(platformPropertyRefs, d.getClassifier()) ||
+                    refersTo(platformPropertyRefs, d.getSystemPath());
+            if (!platformDependent) {
+                for (Exclusion e : d.getExclusions()) {
+                    if (refersTo(platformPropertyRefs, e.getGroupId()) ||
+                        refersTo(platformPropertyRefs, e.getArtifactId())) {
+                        platformDependent = true;
+                        break;
+                    }
+                }
+            }
+
+            if (platformDependent) {
+                keys.add(key(DetectExtension.interpolate(dict, d.getGroupId()),
+                             DetectExtension.interpolate(dict, d.getArtifactId()),
+                             DetectExtension.interpolate(dict, d.getClassifier())));
+            }
+        }
+    }
+
+    private static boolean refersTo(Set<String> platformPropertyRefs, @Nullable String value) {
+        if (value == null || !value.contains("${")) {
+            return false;
+        }
+        for (String ref : platformPropertyRefs) {
+            if (value.contains(ref)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void addEffectiveDependencies(List<Dependency> found, Set<String> keys,
+                                                 List<Dependency> dependencies) {
+        for (Dependency d : dependencies) {
+            if (keys.contains(key(d.getGroupId(), d.getArtifactId(), d.getClassifier())) ||
+                keys.contains(key(d.getGroupId(), d.getArtifactId(), UNRESOLVED_CLASSIFIER))) {
+                found.add(d);
+            }
+        }
+    }
+
+    /**
+     * Returns the key of a dependency. A classifier that cannot be resolved, e.g. one that refers to a property
+     * defined elsewhere, matches any classifier, so that no platform-dependent dependency is missed.
+     */
+    private static String key(String groupId, String artifactId, @Nullable String classifier) {
+        if (classifier != null && classifier.contains("${")) {
+            classifier = UNRESOLVED_CLASSIFIER;
+        }
+        return groupId + ':' + artifactId + ':' + (classifier != null ? classifier : "");
+    }
+
+    /**
+     * Returns the properties that are commonly used in the groupId and artifactId of a dependency.
+     */
+    private static Map<String, String> newDictionary(MavenProject project) {
+        final Map<String, String> dict = new HashMap<String, String>();
+        for (Map.Entry<Object, Object> e : project.getProperties().entrySet()) {
+            dict.put(e.getKey().toString(), String.valueOf(e.getValue()));
+        }
+        dict.put("project.groupId", project.getGroupId());
+        dict.put("project.artifactId", project.getArtifactId());
+        dict.put("project.version", project.getVersion());
+        dict.put("pom.groupId", project.getGroupId());
+        dict.put("pom.version", project.getVersion());
+        final MavenProject parent = project.getParent();
+        if (parent != null) {
+            dict.put("project.parent.groupId", parent.getGroupId());
+            dict.put("project.parent.version", parent.getVersion());
+        }
+        return dict;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 Trustin Heuiseung Lee.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package kr.motd.maven.os;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.logging.Logger;
+
+/**
+ * Writes the modules of a reactor that depend on the detected platform, so that a CI can build only those
+ * modules on the additional platforms, e.g. {@code mvn -pl <affected> package}. The report is a properties file
+ * with the following entries, each of which is a comma-separated list of {@code groupId:artifactId} in the
+ * reactor order:
+ * <ul>
+ * <li>{@code direct} - the modules whose effective dependencies or build plugin dependencies depend on the
+ *     detected platform, or which have a profile, of their own or inherited, activated by the platform</li>
+ * <li>{@code affected} - the {@code direct} modules and all modules that depend on them</li>
+ * </ul>
+ */
+final class PlatformDependencyReport {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * @param platformDependencies the platform-dependent dependencies of each project in the reactor.
+     */
+    static void write(Logger logger, MavenSession session,
+                      Map<MavenProject, PlatformDependencies> platformDependencies, File file) {
+        final Set<MavenProject> direct = new HashSet<MavenProject>();
+        for (Map.Entry<MavenProject, PlatformDependencies> e : platformDependencies.entrySet()) {
+            if (!e.getValue().isEmpty()) {
+                direct.add(e.getKey());
+                if (logger.isDebugEnabled()) {
+                    logger.debug(e.getKey().getId() + " depends on the platform: " + e.getValue());
+                }
+            }
+        }
+
+        final Set<MavenProject> affected = new HashSet<MavenProject>(direct);
+        final ProjectDependencyGraph graph = session.getProjectDependencyGraph();
+        if (graph != null) {
+            for (MavenProject p : direct) {
+                affected.addAll(graph.getDownstreamProjects(p, true));
+            }
+        }
+
+        final List<MavenProject> projects = session.getProjects();
+        final StringBuilder buf = new StringBuilder();
+        buf.append("# Platform-dependent modules reported by os-maven-plugin\n");
+        buf.append("direct=");
+        appendIds(buf, projects, direct);
+        buf.append("\naffected=");
+        appendIds(buf, projects, affected);
+        buf.append('\n');
+
+        try {
+            final File parent = file.getAbsoluteFile().getParentFile();
+            if (!parent.isDirectory() && !parent.mkdirs()) {
+                throw new IOException("failed to create a directory: " + parent);
+            }
+            Files.write(file.toPath(), buf.toString().getBytes(UTF_8));
+        } catch (IOException e) {
+            logger.warn("Failed to write the platform-dependency report: " + file, e);
+            return;
+        }
+
+        logger.info(direct.size() + " of " + projects.size() + " module(s) depend on the platform directly, and " +
+                    affected.size() + " including their dependents: " + file);
+    }
+
+    private static void appendIds(StringBuilder buf, List<MavenProject> projects, Collection<MavenProject> subset) {
+        boolean first = true;
+        for (MavenProject p : projects) {
+            if (!subset.contains(p)) {
+                continue;
+            }
+            if (!first) {
+                buf.append(',');
+            }
+            buf.append(p.getGroupId()).append(':').append(p.getArtifactId());
+            first = false;
+        }
+    }
+
+    private PlatformDependencyReport() {}
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 Trustin Heuiseung Lee.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package kr.motd.maven.os;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Detects the current platform and records the detected properties, including {@code os.detected.fingerprint},
+ * into a snapshot file. Identical machines, such as the containers created from the same image, can then use the
+ * snapshot via the {@code os.detection.snapshot} property instead of detecting the platform again.
+ * {@code os.detected.fs.*} are not recorded, because they depend on where each build runs.
+ */
+@Mojo(name = "snapshot", aggregator = true, threadSafe = true)
+public class SnapshotMojo extends AbstractMojo {
+
+    /**
+     * The file to record the snapshot into.
+     */
+    @Parameter(property = "os.detection.snapshotFile",
+               defaultValue = "${project.build.directory}/os-detection-snapshot.properties", required = true)
+    @SuppressWarnings("UnusedDeclaration")
+    private File snapshotFile;
+
+    @Parameter(property = DetectMojo.CLASSIFIER_WITH_LIKES_PROPERTY,
+               defaultValue = "${" + DetectMojo.CLASSIFIER_WITH_LIKES_PROPERTY + '}')
+    @SuppressWarnings("UnusedDeclaration")
+    private String classifierWithLikes;
+
+    private final Detector detector = new MojoDetector(this);
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        final List<String> likes = DetectMojo.getClassifierWithLikes(classifierWithLikes);
+        final Properties detectedProps = new Properties();
+        try {
+            detector.detect(detectedProps, likes);
+        } catch (DetectionException e) {
+            throw new MojoExecutionException(e.getMessage());
+        }
+        detectedProps.setProperty(Detector.DETECTED_FINGERPRINT, DetectExtension.fingerprint(detectedProps));
+
+        try {
+            if (DetectionSnapshot.write(snapshotFile, detectedProps, System.getProperty("os.name"),
+                                        System.getProperty("os.arch"), likes)) {
+                getLog().info("Recorded the detection snapshot: " + snapshotFile);
+            } else {
+                getLog().info("Skipping the up-to-date detection snapshot: " + snapshotFile);
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("failed to record the detection snapshot: " + snapshotFile, e);
+        }
+    }
+}
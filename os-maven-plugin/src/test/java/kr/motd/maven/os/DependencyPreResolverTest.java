@@ -0,0 +1,305 @@
+/*
+ * Copyright 2026 Trustin Heuiseung Lee.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package kr.motd.maven.os;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
+import org.apache.maven.artifact.repository.MavenArtifactRepository;
+import org.apache.maven.artifact.repository.layout.DefaultRepositoryLayout;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
+import org.codehaus.plexus.logging.AbstractLogger;
+import org.codehaus.plexus.logging.Logger;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.impl.DefaultServiceLocator;
+import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.spi.connector.ArtifactDownload;
+import org.eclipse.aether.spi.connector.ArtifactUpload;
+import org.eclipse.aether.spi.connector.MetadataDownload;
+import org.eclipse.aether.spi.connector.MetadataUpload;
+import org.eclipse.aether.spi.connector.RepositoryConnector;
+import org.eclipse.aether.spi.connector.RepositoryConnectorFactory;
+import org.eclipse.aether.transfer.ArtifactNotFoundException;
+import org.eclipse.aether.transfer.MetadataNotFoundException;
+import org.eclipse.aether.transfer.NoRepositoryConnectorException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Pre-resolves the dependencies of fake projects from remote repositories in a temporary directory into an empty
+ * local repository, and checks which remote repositories each artifact is requested from.
+ */
+public class DependencyPreResolverTest {
+
+    private final WarningLogger logger = new WarningLogger();
+    private File tmpDir;
+    private DefaultRepositorySystemSession repoSession;
+    private RepositorySystem system;
+    private final Map<String, List<RemoteRepository>> requestedRepositories =
+            new ConcurrentHashMap<String, List<RemoteRepository>>();
+
+    @Before
+    public void setUp() throws IOException {
+        tmpDir = Files.createTempDirectory("os-maven-plugin-test").toFile();
+
+        final DefaultServiceLocator locator = MavenRepositorySystemUtils.newServiceLocator();
+        locator.setServices(RepositoryConnectorFactory.class, new FileRepositoryConnectorFactory());
+        final RepositorySystem realSystem = locator.getService(RepositorySystem.class);
+        repoSession = MavenRepositorySystemUtils.newSession();
+        repoSession.setLocalRepositoryManager(realSystem.newLocalRepositoryManager(
+                repoSession, new LocalRepository(new File(tmpDir, "local"), "simple")));
+
+        // Record the repositories of each request before passing it to the real system.
+        system = (RepositorySystem) Proxy.newProxyInstance(
+                RepositorySystem.class.getClassLoader(), new Class<?>[] { RepositorySystem.class },
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if ("resolveArtifact".equals(method.getName())) {
+                            final ArtifactRequest req = (ArtifactRequest) args[1];
+                            requestedRepositories.put(req.getArtifact().getArtifactId(), req.getRepositories());
+                        }
+                        try {
+                            return method.invoke(realSystem, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                });
+    }
+
+    @After
+    public void tearDown() {
+        delete(tmpDir);
+    }
+
+    @Test
+    public void resolvesPluginDependenciesFromPluginRepositories() throws Exception {
+        install("project-repo", "com.example", "native-lib", "1.0", "linux-x86_64");
+        install("plugin-repo", "com.example", "native-tool", "2.0", "linux-x86_64");
+        assertFalse(localFile("com.example", "native-lib", "1.0", "linux-x86_64").exists());
+        assertFalse(localFile("com.example", "native-tool", "2.0", "linux-x86_64").exists());
+
+        final MavenProject project = new MavenProject();
+        project.setRemoteArtifactRepositories(Collections.singletonList(newRepository("project-repo")));
+        project.setPluginArtifactRepositories(Collections.singletonList(newRepository("plugin-repo")));
+
+        final Map<Dependency, MavenProject> projectDependencies = new LinkedHashMap<Dependency, MavenProject>();
+        projectDependencies.put(newDependency("com.example", "native-lib", "1.0", "linux-x86_64"), project);
+        final Map<Dependency, MavenProject> pluginDependencies = new LinkedHashMap<Dependency, MavenProject>();
+        pluginDependencies.put(newDependency("com.example", "native-tool", "2.0", "linux-x86_64"), project);
+
+        assertEquals(2, DependencyPreResolver.preResolve(logger, system, repoSession,
+                                                         projectDependencies, pluginDependencies));
+        assertEquals(Collections.singletonList("project-repo"), ids(requestedRepositories.get("native-lib")));
+        assertEquals(Collections.singletonList("plugin-repo"), ids(requestedRepositories.get("native-tool")));
+        assertTrue(localFile("com.example", "native-lib", "1.0", "linux-x86_64").isFile());
+        assertTrue(localFile("com.example", "native-tool", "2.0", "linux-x86_64").isFile());
+        assertEquals(Collections.<String>emptyList(), logger.warnings);
+    }
+
+    @Test
+    public void toleratesMissingArtifacts() throws Exception {
+        install("project-repo", "com.example", "native-lib", "1.0", "linux-x86_64");
+
+        final MavenProject project = new MavenProject();
+        project.setRemoteArtifactRepositories(Collections.singletonList(newRepository("project-repo")));
+
+        final Map<Dependency, MavenProject> projectDependencies = new LinkedHashMap<Dependency, MavenProject>();
+        projectDependencies.put(newDependency("com.example", "native-lib", "1.0", "linux-x86_64"), project);
+        projectDependencies.put(newDependency("com.example", "missing-lib", "1.0", "linux-x86_64"), project);
+
+        assertEquals(1, DependencyPreResolver.preResolve(logger, system, repoSession, projectDependencies,
+                                                         Collections.<Dependency, MavenProject>emptyMap()));
+        assertEquals(2, requestedRepositories.size());
+        assertTrue(localFile("com.example", "native-lib", "1.0", "linux-x86_64").isFile());
+        assertFalse(localFile("com.example", "missing-lib", "1.0", "linux-x86_64").exists());
+
+        // The failure is reported once at the warning level.
+        assertEquals(1, logger.warnings.size());
+        assertTrue(logger.warnings.get(0), logger.warnings.get(0).contains("missing-lib"));
+    }
+
+    /**
+     * Installs an empty artifact into the remote repository of the specified ID.
+     */
+    private void install(String repoId, String groupId, String artifactId, String version,
+                         String classifier) throws IOException {
+        final File file = new File(new File(tmpDir, repoId), path(groupId, artifactId, version, classifier, "jar"));
+        if (!file.getParentFile().mkdirs()) {
+            throw new IOException("failed to create a directory: " + file.getParentFile());
+        }
+        Files.write(file.toPath(), new byte[0]);
+    }
+
+    private File localFile(String groupId, String artifactId, String version, String classifier) {
+        return new File(new File(tmpDir, "local"), path(groupId, artifactId, version, classifier, "jar"));
+    }
+
+    private static String path(String groupId, String artifactId, String version, String classifier,
+                               String extension) {
+        return groupId.replace('.', '/') + '/' + artifactId + '/' + version + '/' +
+               artifactId + '-' + version + (classifier.isEmpty() ? "" : '-' + classifier) + '.' + extension;
+    }
+
+    private ArtifactRepository newRepository(String id) {
+        final File dir = new File(tmpDir, id);
+        return new MavenArtifactRepository(id, dir.toURI().toString(), new DefaultRepositoryLayout(),
+                                           new ArtifactRepositoryPolicy(), new ArtifactRepositoryPolicy());
+    }
+
+    private static Dependency newDependency(String groupId, String artifactId, String version, String classifier) {
+        final Dependency d = new Dependency();
+        d.setGroupId(groupId);
+        d.setArtifactId(artifactId);
+        d.setVersion(version);
+        d.setClassifier(classifier);
+        return d;
+    }
+
+    private static List<String> ids(List<RemoteRepository> repositories) {
+        final List<String> ids = new ArrayList<String>();
+        for (RemoteRepository r : repositories) {
+            ids.add(r.getId());
+        }
+        return ids;
+    }
+
+    private static void delete(File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    /**
+     * Copies the artifacts from a {@code file:} repository, in place of the basic connector and the file
+     * transporter of Maven, which the test class path does not have.
+     */
+    private static final class FileRepositoryConnectorFactory implements RepositoryConnectorFactory {
+        @Override
+        public RepositoryConnector newInstance(RepositorySystemSession session, final RemoteRepository repository)
+                throws NoRepositoryConnectorException {
+            if (!"file".equals(repository.getProtocol())) {
+                throw new NoRepositoryConnectorException(repository);
+            }
+            final File baseDir = new File(URI.create(repository.getUrl()));
+
+            return new RepositoryConnector() {
+                @Override
+                public void get(Collection<? extends ArtifactDownload> artifactDownloads,
+                                Collection<? extends MetadataDownload> metadataDownloads) {
+                    if (artifactDownloads != null) {
+                        for (ArtifactDownload download : artifactDownloads) {
+                            final Artifact a = download.getArtifact();
+                            final File src = new File(baseDir, path(a.getGroupId(), a.getArtifactId(),
+                                                                    a.getVersion(), a.getClassifier(),
+                                                                    a.getExtension()));
+                            try {
+                                download.getFile().getParentFile().mkdirs();
+                                Files.copy(src.toPath(), download.getFile().toPath(),
+                                           StandardCopyOption.REPLACE_EXISTING);
+                            } catch (IOException e) {
+                                download.setException(new ArtifactNotFoundException(a, repository));
+                            }
+                        }
+                    }
+                    if (metadataDownloads != null) {
+                        for (MetadataDownload download : metadataDownloads) {
+                            download.setException(new MetadataNotFoundException(download.getMetadata(),
+                                                                                repository));
+                        }
+                    }
+                }
+
+                @Override
+                public void put(Collection<? extends ArtifactUpload> artifactUploads,
+                                Collection<? extends MetadataUpload> metadataUploads) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public void close() {}
+            };
+        }
+
+        @Override
+        public float getPriority() {
+            return 0;
+        }
+    }
+
+    private static final class WarningLogger extends AbstractLogger {
+        final List<String> warnings = Collections.synchronizedList(new ArrayList<String>());
+
+        WarningLogger() {
+            super(LEVEL_DEBUG, "test");
+        }
+
+        @Override
+        public void debug(String message, Throwable throwable) {}
+
+        @Override
+        public void info(String message, Throwable throwable) {}
+
+        @Override
+        public void warn(String message, Throwable throwable) {
+            warnings.add(message);
+        }
+
+        @Override
+        public void error(String message, Throwable throwable) {}
+
+        @Override
+        public void fatalError(String message, Throwable throwable) {}
+
+        @Override
+        public Logger getChildLogger(String name) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2026 Trustin Heuiseung Lee.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package kr.motd.maven.os;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.ModelBase;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.Profile;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.logging.AbstractLogger;
+import org.codehaus.plexus.logging.Logger;
+import org.junit.Test;
+
+/**
+ * Drives {@link DetectExtension} through synthetic reactors of various sizes, with parent chains, active profiles
+ * and a large {@code <dependencyManagement>}, as a build extension and as a core extension. The wall time, the
+ * allocated bytes and the number of the visited models of each run are reported to the standard output.
+ */
+public class DetectExtensionReactorTest {
+
+    private static final Logger LOGGER = new DiscardingLogger();
+
+    private static final int[] NUM_MODULES = { 10, 100, 500, 2000 };
+    private static final int MODULES_PER_GROUP = 10;
+    private static final int NUM_MANAGED_DEPENDENCIES = 1000;
+    private static final int NUM_DEPENDENCIES = 20;
+    private static final String CLASSIFIER_REF = "${os.detected.classifier}";
+
+    @Test
+    public void buildExtension() throws Exception {
+        for (int numModules : NUM_MODULES) {
+            final Reactor reactor = new Reactor(numModules);
+            final MavenSession session = newSession();
+            session.setProjects(reactor.projects);
+            final DetectExtension extension = new DetectExtension(LOGGER);
+
+            final Run run = new Run();
+            extension.afterProjectsRead(session);
+            run.stop();
+
+            // Maven has not interpolated the models, so every model is visited exactly once.
+            assertEquals(reactor.numModels, extension.numInterpolatedModels());
+            final String classifier = session.getSystemProperties().getProperty(Detector.DETECTED_CLASSIFIER);
+            assertNotNull(classifier);
+            reactor.assertInterpolated(classifier);
+            run.report("build extension", reactor, extension);
+        }
+    }
+
+    @Test
+    public void coreExtension() throws Exception {
+        for (int numModules : NUM_MODULES) {
+            final Reactor reactor = new Reactor(numModules);
+            final MavenSession session = newSession();
+            final DetectExtension extension = new DetectExtension(LOGGER);
+
+            final Run run = new Run();
+            extension.afterSessionStart(session);
+            // Maven reads the projects here, interpolating ${os.detected.*} by itself.
+            session.setProjects(reactor.projects);
+            extension.afterProjectsRead(session);
+            run.stop();
+
+            // Only the project properties are set; no model is visited.
+            assertEquals(0, extension.numInterpolatedModels());
+            final String classifier = session.getSystemProperties().getProperty(Detector.DETECTED_CLASSIFIER);
+            assertNotNull(classifier);
+            for (MavenProject p : reactor.projects) {
+                assertEquals(classifier, p.getProperties().getProperty(Detector.DETECTED_CLASSIFIER));
+            }
+            run.report("core extension", reactor, extension);
+        }
+    }
+
+    private static MavenSession newSession() {
+        final Properties systemProps = new Properties();
+        systemProps.putAll(System.getProperties());
+        return DetectExtensionTest.newSession(systemProps);
+    }
+
+    /**
+     * A root parent with a large {@code <dependencyManagement>}, a group parent for every
+     * {@link #MODULES_PER_GROUP} modules, and the modules, each with an active profile.
+     */
+    private static final class Reactor {
+        final List<MavenProject> projects = new ArrayList<MavenProject>();
+        final List<Dependency> dependencies = new ArrayList<Dependency>();
+        final int numModules;
+        int numModels;
+
+        Reactor(int numModules) {
+            this.numModules = numModules;
+
+            final Model rootModel = newModel("root");
+            rootModel.setDependencyManagement(new DependencyManagement());
+            for (int i = 0; i < NUM_MANAGED_DEPENDENCIES; i++) {
+                rootModel.getDependencyManagement().addDependency(
+                        newDependency("managed-" + i, i % 10 == 0 ? CLASSIFIER_REF : null));
+            }
+            rootModel.getProperties().setProperty("native.classifier", CLASSIFIER_REF);
+            final MavenProject root = addProject(rootModel, null);
+
+            MavenProject group = null;
+            for (int i = 0; i < numModules; i++) {
+                if (i % MODULES_PER_GROUP == 0) {
+                    group = addProject(newModel("group-" + i / MODULES_PER_GROUP), root);
+                }
+
+                final Model model = newModel("module-" + i);
+                for (int j = 0; j < NUM_DEPENDENCIES; j++) {
+                    model.addDependency(newDependency("lib-" + j, j % 10 == 0 ? CLASSIFIER_REF : null));
+                }
+                final Plugin plugin = new Plugin();
+                plugin.setArtifactId("exec-maven-plugin");
+                plugin.addDependency(newDependency("tool", CLASSIFIER_REF));
+                model.getBuild().addPlugin(plugin);
+
+                final Profile profile = new Profile();
+                profile.setId("native");
+                profile.addDependency(newDependency("profile-lib", CLASSIFIER_REF));
+                model.addProfile(profile);
+
+                final MavenProject module = addProject(model, group);
+                module.setActiveProfiles(Collections.singletonList(profile));
+                numModels++;
+            }
+        }
+
+        private MavenProject addProject(Model model, MavenProject parent) {
+            final MavenProject project = new MavenProject(model);
+            project.setOriginalModel(model);
+            project.setParent(parent);
+            projects.add(project);
+            numModels++;
+            collectDependencies(model);
+            for (Profile p : model.getProfiles()) {
+                collectDependencies(p);
+            }
+            return project;
+        }
+
+        private void collectDependencies(ModelBase model) {
+            dependencies.addAll(model.getDependencies());
+            if (model.getDependencyManagement() != null) {
+                dependencies.addAll(model.getDependencyManagement().getDependencies());
+            }
+            if (model instanceof Model) {
+                for (Plugin p : ((Model) model).getBuild().getPlugins()) {
+                    dependencies.addAll(p.getDependencies());
+                }
+            }
+        }
+
+        void assertInterpolated(String classifier) {
+            for (Dependency d : dependencies) {
+                if (d.getClassifier() != null) {
+                    assertEquals(d.getManagementKey(), classifier, d.getClassifier());
+                }
+            }
+        }
+
+        private static Model newModel(String artifactId) {
+            final Model model = new Model();
+            model.setGroupId("com.example");
+            model.setArtifactId(artifactId);
+            model.setVersion("1.0");
+            model.setBuild(new Build());
+            model.getBuild().setDirectory(System.getProperty("java.io.tmpdir") + '/' + artifactId + "/target");
+            return model;
+        }
+
+        private static Dependency newDependency(String artifactId, String classifier) {
+            final Dependency d = new Dependency();
+            d.setGroupId("com.example");
+            d.setArtifactId(artifactId);
+            d.setVersion("1.0");
+            d.setClassifier(classifier);
+            return d;
+        }
+    }
+
+    /**
+     * Measures the wall time and the bytes allocated by the current thread.
+     */
+    private static final class Run {
+        private final java.lang.management.ThreadMXBean threadMxBean = ManagementFactory.getThreadMXBean();
+        private final long startTimeNanos;
+        private final long startAllocatedBytes;
+        private long elapsedNanos;
+        private long allocatedBytes;
+
+        Run() {
+            startAllocatedBytes = allocatedBytes();
+            startTimeNanos = System.nanoTime();
+        }
+
+        void stop() {
+            elapsedNanos = System.nanoTime() - startTimeNanos;
+            allocatedBytes = startAllocatedBytes >= 0 ? allocatedBytes() - startAllocatedBytes : -1;
+        }
+
+        private long allocatedBytes() {
+            if (threadMxBean instanceof com.sun.management.ThreadMXBean) {
+                return ((com.sun.management.ThreadMXBean) threadMxBean).getThreadAllocatedBytes(
+                        Thread.currentThread().getId());
+            }
+            return -1;
+        }
+
+        void report(String mode, Reactor reactor, DetectExtension extension) {
+            System.out.printf("%-15s %4d module(s), %4d project(s): %5d ms, %8d KiB allocated, " +
+                              "%4d model(s) visited%n",
+                              mode, reactor.numModules, reactor.projects.size(), elapsedNanos / 1000000,
+                              allocatedBytes / 1024, extension.numInterpolatedModels());
+        }
+    }
+
+    /**
+     * Enables but discards the debug messages, so that the cost of building them is measured as well.
+     * A warning, e.g. of an emulated host, does not fail the test.
+     */
+    private static final class DiscardingLogger extends AbstractLogger {
+        DiscardingLogger() {
+            super(LEVEL_DEBUG, "test");
+        }
+
+        @Override
+        public void debug(String message, Throwable throwable) {}
+
+        @Override
+        public void info(String message, Throwable throwable) {}
+
+        @Override
+        public void warn(String message, Throwable throwable) {}
+
+        @Override
+        public void error(String message, Throwable throwable) {}
+
+        @Override
+        public void fatalError(String message, Throwable throwable) {}
+
+        @Override
+        public Logger getChildLogger(String name) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 Trustin Heuiseung Lee.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package kr.motd.maven.os;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Properties;
+
+import org.apache.maven.MavenExecutionException;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.junit.Test;
+
+public class DetectExtensionTest {
+
+    private static final Logger LOGGER = new ConsoleLogger(Logger.LEVEL_DISABLED, "test");
+
+    /**
+     * A core extension is invoked before the projects are read, when there's no current project yet.
+     */
+    @Test
+    public void failsWithoutCurrentProject() {
+        final Properties systemProps = new Properties();
+        systemProps.setProperty("os.name", "Plan 9");
+        systemProps.setProperty("os.arch", "amd64");
+        systemProps.setProperty("os.version", "4.0");
+        final MavenSession session = newSession(systemProps);
+        assertNull(session.getCurrentProject());
+
+        try {
+            new DetectExtension(LOGGER).afterSessionStart(session);
+            fail();
+        } catch (MavenExecutionException e) {
+            assertEquals("unknown os.name: Plan 9", e.getMessage());
+            assertNull(e.getPomFile());
+        }
+    }
+
+    @Test
+    public void detectsBuildDirectoryFileSystemsOnlyOnRequest() throws Exception {
+        assumeTrue("Linux".equals(System.getProperty("os.name")) && new File("/proc/self/mountinfo").isFile());
+        final String builddirType = Detector.DETECTED_FS_PREFIX + "builddir.type";
+
+        MavenProject project = newProject();
+        new DetectExtension(LOGGER).afterProjectsRead(newSession(project, false));
+        assertNull(project.getProperties().getProperty(builddirType));
+
+        project = newProject();
+        new DetectExtension(LOGGER).afterProjectsRead(newSession(project, true));
+        assertNotNull(project.getProperties().getProperty(builddirType));
+    }
+
+    private static MavenProject newProject() {
+        final Model model = new Model();
+        model.setGroupId("com.example");
+        model.setArtifactId("app");
+        model.setVersion("1.0");
+        model.setBuild(new Build());
+        model.getBuild().setDirectory(System.getProperty("java.io.tmpdir"));
+        final MavenProject project = new MavenProject(model);
+        project.setOriginalModel(model);
+        return project;
+    }
+
+    private static MavenSession newSession(MavenProject project, boolean buildDirectoryFileSystems) {
+        final Properties systemProps = new Properties();
+        systemProps.putAll(System.getProperties());
+        final MavenSession session = newSession(systemProps);
+        session.getUserProperties().setProperty(DetectExtension.BUILD_DIRECTORY_FILE_SYSTEMS_PROPERTY,
+                                                String.valueOf(buildDirectoryFileSystems));
+        session.setProjects(Collections.singletonList(project));
+        return session;
+    }
+
+    // Every constructor of MavenSession is deprecated in favor of the one Maven creates.
+    @SuppressWarnings("deprecation")
+    static MavenSession newSession(Properties systemProps) {
+        final MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+        request.setSystemProperties(systemProps);
+        request.setUserProperties(new Properties());
+        return new MavenSession(null, MavenRepositorySystemUtils.newSession(), request,
+                                new DefaultMavenExecutionResult());
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright 2026 Trustin Heuiseung Lee.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package kr.motd.maven.os;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Field;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.monitor.logging.DefaultLog;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.junit.Test;
+
+/**
+ * Runs many {@link Detector}s and {@link DetectMojo}s concurrently, as a parallel build does, and checks that
+ * they all get the same result. The throughput and the lock contention of each concurrency level are reported
+ * to the standard output.
+ */
+public class DetectMojoConcurrencyTest {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final int[] NUM_THREADS = { 1, 2, 4, 8, 16 };
+    private static final int NUM_DETECTIONS = 4000;
+
+    private static final Map<String, byte[]> FILES = new HashMap<String, byte[]>();
+
+    static {
+        FILES.put("/etc/os-release", ("NAME=\"Ubuntu\"\n" +
+                                      "VERSION_ID=\"22.04\"\n" +
+                                      "ID=ubuntu\n" +
+                                      "ID_LIKE=debian\n").getBytes(UTF_8));
+        FILES.put("/proc/cpuinfo", ("processor\t: 0\n" +
+                                    "vendor_id\t: GenuineIntel\n" +
+                                    "flags\t\t: fpu vme de pse tsc msr pae lm\n" +
+                                    '\n').getBytes(UTF_8));
+    }
+
+    private static final FileOperationProvider FAKE_FILES = new FileOperationProvider() {
+        @Override
+        public InputStream readFile(String filePath) throws FileNotFoundException {
+            final byte[] content = FILES.get(filePath);
+            if (content == null) {
+                throw new FileNotFoundException(filePath);
+            }
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public InputStream readFileIfExists(String filePath) {
+            final byte[] content = FILES.get(filePath);
+            return content != null ? new ByteArrayInputStream(content) : null;
+        }
+
+        @Override
+        public String[] listFiles(String dirPath) {
+            return "/etc/".equals(dirPath) ? new String[] { "os-release" } : null;
+        }
+    };
+
+    @Test
+    public void detectorsAgreeUnderContention() throws Exception {
+        final FakeSystemProperties systemProps = new FakeSystemProperties();
+        final Properties expected = detect(systemProps);
+        assertEquals("linux-x86_64", expected.getProperty(Detector.DETECTED_CLASSIFIER));
+
+        for (int numThreads : NUM_THREADS) {
+            run("Detector", numThreads, new Callable<Properties>() {
+                @Override
+                public Properties call() {
+                    return detect(systemProps);
+                }
+            }, expected);
+        }
+        assertDetectedProperties(expected, systemProps);
+    }
+
+    @Test
+    public void mojosAgreeUnderContention() throws Exception {
+        final FakeSystemProperties systemProps = new FakeSystemProperties();
+        final Properties expected = execute(systemProps);
+
+        for (int numThreads : NUM_THREADS) {
+            run("DetectMojo", numThreads, new Callable<Properties>() {
+                @Override
+                public Properties call() throws Exception {
+                    return execute(systemProps);
+                }
+            }, expected);
+        }
+        assertDetectedProperties(expected, systemProps);
+    }
+
+    /**
+     * Uses the real system properties, to report the contention on them.
+     */
+    @Test
+    public void systemPropertiesUnderContention() throws Exception {
+        final Properties oldProps = detectedSystemProperties();
+        try {
+            final SystemPropertyOperationProvider systemProps = new Detector.SimpleSystemPropertyOperations();
+            final Properties expected = detect(systemProps);
+
+            for (int numThreads : NUM_THREADS) {
+                run("Detector with system properties", numThreads, new Callable<Properties>() {
+                    @Override
+                    public Properties call() {
+                        return detect(systemProps);
+                    }
+                }, expected);
+            }
+            assertDetectedProperties(expected, new Detector.SimpleSystemPropertyOperations());
+
+            // A property cleared by others, e.g. by the Maven daemon between builds, must be set again.
+            System.clearProperty(Detector.DETECTED_CLASSIFIER);
+            detect(systemProps);
+            assertEquals(expected.getProperty(Detector.DETECTED_CLASSIFIER),
+                         System.getProperty(Detector.DETECTED_CLASSIFIER));
+        } finally {
+            restoreDetectedSystemProperties(oldProps);
+        }
+    }
+
+    private static Properties detectedSystemProperties() {
+        final Properties props = new Properties();
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("os.detected.")) {
+                props.setProperty(name, System.getProperty(name));
+            }
+        }
+        return props;
+    }
+
+    private static void restoreDetectedSystemProperties(Properties oldProps) {
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("os.detected.") && !oldProps.containsKey(name)) {
+                System.clearProperty(name);
+            }
+        }
+        for (String name : oldProps.stringPropertyNames()) {
+            System.setProperty(name, oldProps.getProperty(name));
+        }
+    }
+
+    private static Properties detect(SystemPropertyOperationProvider systemProps) {
+        final Properties props = new Properties();
+        new Detector(systemProps, FAKE_FILES) {
+            @Override
+            protected void log(String message) {}
+
+            @Override
+            protected void logProperty(String name, String value) {}
+        }.detect(props, Collections.<String>emptyList());
+        return props;
+    }
+
+    private static Properties execute(SystemPropertyOperationProvider systemProps) throws Exception {
+        final MavenProject project = new MavenProject();
+        final DetectMojo mojo = new DetectMojo(systemProps, FAKE_FILES);
+        mojo.setLog(new DefaultLog(new ConsoleLogger(Logger.LEVEL_DISABLED, "test")));
+        final Field projectField = DetectMojo.class.getDeclaredField("project");
+        projectField.setAccessible(true);
+        projectField.set(mojo, project);
+        mojo.execute();
+        return project.getProperties();
+    }
+
+    private static void run(String name, int numThreads, final Callable<Properties> task,
+                            Properties expected) throws Exception {
+        final ThreadMXBean threadMxBean = ManagementFactory.getThreadMXBean();
+        if (threadMxBean.isThreadContentionMonitoringSupported()) {
+            threadMxBean.setThreadContentionMonitoringEnabled(true);
+        }
+
+        final Set<Long> threadIds = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+        final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            final int numDetectionsPerThread = NUM_DETECTIONS / numThreads;
+            final List<Callable<List<Properties>>> workers = new ArrayList<Callable<List<Properties>>>();
+            for (int i = 0; i < numThreads; i++) {
+                workers.add(new Callable<List<Properties>>() {
+                    @Override
+                    public List<Properties> call() throws Exception {
+                        threadIds.add(Thread.currentThread().getId());
+                        final List<Properties> results = new ArrayList<Properties>(numDetectionsPerThread);
+                        for (int j = 0; j < numDetectionsPerThread; j++) {
+                            results.add(task.call());
+                        }
+                        return results;
+                    }
+                });
+            }
+
+            final long startTimeNanos = System.nanoTime();
+            final List<Future<List<Properties>>> futures = executor.invokeAll(workers);
+            final long elapsedNanos = System.nanoTime() - startTimeNanos;
+
+            for (Future<List<Properties>> f : futures) {
+                for (Properties actual : f.get()) {
+                    assertEquals(expected, actual);
+                }
+            }
+
+            // Collect the contention statistics while the pool threads are still alive.
+            long blockedCount = 0;
+            long blockedTimeMillis = 0;
+            for (long id : threadIds) {
+                final ThreadInfo info = threadMxBean.getThreadInfo(id);
+                if (info != null) {
+                    blockedCount += info.getBlockedCount();
+                    blockedTimeMillis += Math.max(0, info.getBlockedTime());
+                }
+            }
+
+            System.out.printf("%s: %2d thread(s), %9.0f detections/s, blocked %d time(s) for %d ms%n",
+                              name, numThreads,
+                              numDetectionsPerThread * numThreads * 1e9 / elapsedNanos,
+                              blockedCount, blockedTimeMillis);
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void assertDetectedProperties(Properties expected, SystemPropertyOperationProvider actual) {
+        for (String name : expected.stringPropertyNames()) {
+            assertEquals(name, expected.getProperty(name), actual.getSystemProperty(name));
+        }
+    }
+
+    /**
+     * Backed by a {@link ConcurrentHashMap} rather than a {@link Properties}, so that the contention reported is
+     * not the one of the fake's own lock.
+     */
+    private static final class FakeSystemProperties implements SystemPropertyOperationProvider {
+        private final ConcurrentMap<String, String> props = new ConcurrentHashMap<String, String>();
+
+        FakeSystemProperties() {
+            props.put("os.name", "Linux");
+            props.put("os.arch", "amd64");
+            props.put("os.version", "5.15.0-91-generic");
+            props.put("sun.arch.data.model", "64");
+        }
+
+        @Override
+        public String getSystemProperty(String name) {
+            return props.get(name);
+        }
+
+        @Override
+        public String getSystemProperty(String name, String def) {
+            final String value = props.get(name);
+            return value != null ? value : def;
+        }
+
+        @Override
+        public String setSystemProperty(String name, String value) {
+            return props.put(name, value);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2026 Trustin Heuiseung Lee.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package kr.motd.maven.os;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.maven.monitor.logging.DefaultLog;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DetectionSnapshotTest {
+
+    private static final List<String> NO_LIKES = Collections.emptyList();
+    private static final List<String> LIKES = Arrays.asList("rhel", "debian");
+
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("os-detection-snapshot", ".properties");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void replaysValidSnapshot() throws Exception {
+        final Properties detectedProps = newDetectedProperties();
+        assertTrue(DetectionSnapshot.write(file, detectedProps, "Linux", "amd64", LIKES));
+        assertEquals(detectedProps, DetectionSnapshot.read(file, "Linux", "amd64", LIKES));
+    }
+
+    @Test
+    public void rejectsStaleSnapshot() throws Exception {
+        DetectionSnapshot.write(file, newDetectedProperties(), "Linux", "amd64", LIKES);
+
+        assertRejected("stale snapshot: os.name is 'Linux', but expected 'Mac OS X'", "Mac OS X", "amd64", LIKES);
+        assertRejected("stale snapshot: os.arch is 'amd64', but expected 'aarch64'", "Linux", "aarch64", LIKES);
+        assertRejected("stale snapshot: os.detection.classifierWithLikes is 'rhel,debian', but expected 'debian'",
+                       "Linux", "amd64", Collections.singletonList("debian"));
+        assertRejected("stale snapshot: os.detection.classifierWithLikes is 'rhel,debian', but expected ''",
+                       "Linux", "amd64", NO_LIKES);
+    }
+
+    @Test
+    public void rejectsUnsupportedVersion() throws Exception {
+        DetectionSnapshot.write(file, newDetectedProperties(), "Linux", "amd64", NO_LIKES);
+        final String content = new String(Files.readAllBytes(file.toPath()), Charset.forName("ISO-8859-1"));
+
+        Files.write(file.toPath(), content.replace("os.detection.snapshot.version=1",
+                                                   "os.detection.snapshot.version=2").getBytes("ISO-8859-1"));
+        assertRejected("unsupported snapshot version: 2", "Linux", "amd64", NO_LIKES);
+
+        Files.write(file.toPath(), content.replace("os.detection.snapshot.version=1\n", "")
+                                          .getBytes("ISO-8859-1"));
+        assertRejected("unsupported snapshot version: null", "Linux", "amd64", NO_LIKES);
+    }
+
+    @Test
+    public void rejectsSnapshotWithoutClassifier() throws Exception {
+        final Properties detectedProps = newDetectedProperties();
+        detectedProps.remove(Detector.DETECTED_CLASSIFIER);
+        DetectionSnapshot.write(file, detectedProps, "Linux", "amd64", NO_LIKES);
+        assertRejected("snapshot without os.detected.classifier", "Linux", "amd64", NO_LIKES);
+    }
+
+    /**
+     * The {@code detect} goal uses a matching snapshot instead of detecting the platform, which would fail here,
+     * and detects the platform if the snapshot is stale.
+     */
+    @Test
+    public void detectMojoReplaysSnapshot() throws Exception {
+        final Properties detectedProps = newDetectedProperties();
+        DetectionSnapshot.write(file, detectedProps, "Plan 9", "amd64", NO_LIKES);
+
+        final Map<String, String> systemProps = new HashMap<String, String>();
+        systemProps.put("os.name", "Plan 9");
+        systemProps.put("os.arch", "amd64");
+        final MavenProject project = new MavenProject();
+        executeDetectMojo(systemProps, project);
+        assertEquals(detectedProps, project.getProperties());
+        for (String name : detectedProps.stringPropertyNames()) {
+            assertEquals(name, detectedProps.getProperty(name), systemProps.get(name));
+        }
+
+        systemProps.clear();
+        systemProps.put("os.name", "Plan 9");
+        systemProps.put("os.arch", "x86");
+        systemProps.put("os.version", "4.0");
+        try {
+            executeDetectMojo(systemProps, new MavenProject());
+            fail();
+        } catch (MojoExecutionException e) {
+            assertEquals("unknown os.name: Plan 9", e.getMessage());
+        }
+    }
+
+    @Test
+    public void excludesFileSystems() throws Exception {
+        final Properties detectedProps = new Properties();
+        detectedProps.setProperty(Detector.DETECTED_CLASSIFIER, "linux-x86_64");
+        detectedProps.setProperty(Detector.DETECTED_FS_PREFIX + "builddir.type", "ext4");
+        detectedProps.setProperty(Detector.DETECTED_FS_PREFIX + "tmpdir.type", "tmpfs");
+
+        assertTrue(DetectionSnapshot.write(file, detectedProps, "Linux", "amd64", NO_LIKES));
+        assertFalse(new String(Files.readAllBytes(file.toPath()), Charset.forName("ISO-8859-1"))
+                            .contains(Detector.DETECTED_FS_PREFIX));
+        assertFalse(DetectionSnapshot.write(file, detectedProps, "Linux", "amd64", NO_LIKES));
+
+        // A snapshot recorded by an older version may still have them.
+        Files.write(file.toPath(), ("os.detection.snapshot.version=1\n" +
+                                    "os.name=Linux\n" +
+                                    "os.arch=amd64\n" +
+                                    "os.detection.classifierWithLikes=\n" +
+                                    "os.detected.classifier=linux-x86_64\n" +
+                                    "os.detected.fs.basedir.type=ext4\n").getBytes("ISO-8859-1"));
+        final Properties expected = new Properties();
+        expected.setProperty(Detector.DETECTED_CLASSIFIER, "linux-x86_64");
+        assertEquals(expected, DetectionSnapshot.read(file, "Linux", "amd64", NO_LIKES));
+    }
+
+    private void assertRejected(String expectedMessage, String osName, String osArch, List<String> likes)
+            throws Exception {
+        try {
+            DetectionSnapshot.read(file, osName, osArch, likes);
+            fail();
+        } catch (DetectionException e) {
+            assertEquals(expectedMessage + " (" + file + ')', e.getMessage());
+        }
+    }
+
+    private void executeDetectMojo(final Map<String, String> systemProps, MavenProject project) throws Exception {
+        final DetectMojo mojo = new DetectMojo(new SystemPropertyOperationProvider() {
+            @Override
+            public String getSystemProperty(String name) {
+                return systemProps.get(name);
+            }
+
+            @Override
+            public String getSystemProperty(String name, String def) {
+                final String value = systemProps.get(name);
+                return value != null ? value : def;
+            }
+
+            @Override
+            public String setSystemProperty(String name, String value) {
+                return systemProps.put(name, value);
+            }
+        }, new FileOperationProvider() {
+            @Override
+            public InputStream readFile(String filePath) {
+                throw new AssertionError("read " + filePath);
+            }
+
+            @Override
+            public String[] listFiles(String dirPath) {
+                return null;
+            }
+        });
+        mojo.setLog(new DefaultLog(new ConsoleLogger(Logger.LEVEL_DISABLED, "test")));
+        setField(mojo, "project", project);
+        setField(mojo, "snapshot", file.getPath());
+        mojo.execute();
+    }
+
+    private static void setField(Object target, String name, Object value) throws Exception {
+        final Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    private static Properties newDetectedProperties() {
+        final Properties props = new Properties();
+        props.setProperty(Detector.DETECTED_NAME, "linux");
+        props.setProperty(Detector.DETECTED_ARCH, "x86_64");
+        props.setProperty(Detector.DETECTED_BITNESS, "64");
+        props.setProperty(Detector.DETECTED_RELEASE, "ubuntu");
+        props.setProperty(Detector.DETECTED_RELEASE_VERSION, "22.04");
+        props.setProperty(Detector.DETECTED_RELEASE_LIKE_PREFIX + "debian", "true");
+        props.setProperty(Detector.DETECTED_CLASSIFIER, "linux-x86_64-debian");
+        props.setProperty(Detector.DETECTED_FINGERPRINT, "0123456789abcdef");
+        return props;
+    }
+}
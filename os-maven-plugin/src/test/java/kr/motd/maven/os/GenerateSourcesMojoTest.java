@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 Trustin Heuiseung Lee.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package kr.motd.maven.os;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeNotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.Test;
+
+public class GenerateSourcesMojoTest {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final String[] VALUES = {
+            "linux-x86_64",
+            "",
+            "\"quoted\"",
+            "back\\slash",
+            "line\nbreak\r\n",
+            "tab\tbell\u0007nul\u0000esc\u001b",
+            "del\u007f",
+            "café 안녕 😀",
+            "line separator\u2028",
+            "\\u000a",
+    };
+
+    @Test
+    public void escapesConstants() {
+        assertEquals("\"quoted\\\"\"", literal("quoted\""));
+        assertEquals("\"back\\\\slash\"", literal("back\\slash"));
+        assertEquals("\"a\\nb\\rc\\td\"", literal("a\nb\rc\td"));
+        assertEquals("\"\\000\\007\\037\"", literal("\u0000\u0007\u001f"));
+        assertEquals("\"\\u007f\\u00e9\\ud83d\\ude00\"", literal("\u007fé😀"));
+        // Would be translated into a line break before lexing if it were not escaped.
+        assertEquals("\"\\\\u000a\"", literal("\\u000a"));
+        assertEquals("    public static final String C = null;\n", constant(null));
+    }
+
+    /**
+     * Compiles the generated constants and checks that they have the original values.
+     */
+    @Test
+    public void compilesConstants() throws Exception {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assumeNotNull(compiler);
+
+        final StringBuilder buf = new StringBuilder("public final class Constants {\n");
+        for (int i = 0; i < VALUES.length; i++) {
+            GenerateSourcesMojo.appendConstant(buf, "C" + i, VALUES[i]);
+        }
+        buf.append("}\n");
+
+        final File dir = Files.createTempDirectory("os-maven-plugin-test").toFile();
+        final File file = new File(dir, "Constants.java");
+        try {
+            Files.write(file.toPath(), buf.toString().getBytes(UTF_8));
+            final ByteArrayOutputStream err = new ByteArrayOutputStream();
+            assertEquals(err.toString(), 0, compiler.run(null, null, err, "-encoding", "UTF-8",
+                                                         "-d", dir.getPath(), file.getPath()));
+
+            final URLClassLoader loader = new URLClassLoader(new URL[] { dir.toURI().toURL() }, null);
+            try {
+                final Class<?> constants = loader.loadClass("Constants");
+                for (int i = 0; i < VALUES.length; i++) {
+                    assertEquals(VALUES[i], constants.getField("C" + i).get(null));
+                }
+            } finally {
+                loader.close();
+            }
+        } finally {
+            for (File f : dir.listFiles()) {
+                f.delete();
+            }
+            dir.delete();
+        }
+    }
+
+    @Test
+    public void validatesClassNames() {
+        assertTrue(GenerateSourcesMojo.isValidClassName("BuildPlatform"));
+        assertTrue(GenerateSourcesMojo.isValidClassName("com.example.BuildPlatform"));
+        assertTrue(GenerateSourcesMojo.isValidClassName("com.example.$Platform_1"));
+
+        assertFalse(GenerateSourcesMojo.isValidClassName(null));
+        assertFalse(GenerateSourcesMojo.isValidClassName(""));
+        assertFalse(GenerateSourcesMojo.isValidClassName("com..example.BuildPlatform"));
+        assertFalse(GenerateSourcesMojo.isValidClassName(".BuildPlatform"));
+        assertFalse(GenerateSourcesMojo.isValidClassName("com.example."));
+        assertFalse(GenerateSourcesMojo.isValidClassName("1Platform"));
+        assertFalse(GenerateSourcesMojo.isValidClassName("com.example.Build-Platform"));
+        assertFalse(GenerateSourcesMojo.isValidClassName("class"));
+        assertFalse(GenerateSourcesMojo.isValidClassName("com.example.int"));
+        assertFalse(GenerateSourcesMojo.isValidClassName("com.true.Platform"));
+        assertFalse(GenerateSourcesMojo.isValidClassName("null"));
+    }
+
+    private static String literal(String value) {
+        final String constant = constant(value);
+        return constant.substring(constant.indexOf(" = ") + 3, constant.length() - 2);
+    }
+
+    private static String constant(String value) {
+        final StringBuilder buf = new StringBuilder();
+        GenerateSourcesMojo.appendConstant(buf, "C", value);
+        return buf.toString();
+    }
+}
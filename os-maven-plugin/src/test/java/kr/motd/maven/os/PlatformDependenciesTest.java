@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 Trustin Heuiseung Lee.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package kr.motd.maven.os;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.maven.model.Activation;
+import org.apache.maven.model.ActivationOS;
+import org.apache.maven.model.ActivationProperty;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.Profile;
+import org.apache.maven.project.MavenProject;
+import org.junit.Test;
+
+public class PlatformDependenciesTest {
+
+    @Test
+    public void findsProjectAndPluginDependencies() {
+        final Model model = newModel("app");
+        model.addDependency(newDependency("native-lib", "${os.detected.classifier}"));
+        model.addDependency(newDependency("plain-lib", null));
+        final Plugin plugin = new Plugin();
+        plugin.setArtifactId("exec-maven-plugin");
+        plugin.addDependency(newDependency("native-tool", "${os.detected.classifier}"));
+        model.setBuild(new Build());
+        model.getBuild().addPlugin(plugin);
+
+        final PlatformDependencies found = PlatformDependencies.find(newProject(model, null));
+        assertEquals(1, found.projectDependencies.size());
+        assertEquals("native-lib", found.projectDependencies.get(0).getArtifactId());
+        assertEquals(1, found.pluginDependencies.size());
+        assertEquals("native-tool", found.pluginDependencies.get(0).getArtifactId());
+        assertTrue(found.platformProfiles.isEmpty());
+    }
+
+    @Test
+    public void findsProfilesActivatedByPlatform() {
+        final Model parentModel = newModel("parent");
+        parentModel.addProfile(newPropertyProfile("detected-windows", "os.detected.name"));
+        parentModel.addProfile(newPropertyProfile("not-ubuntu", "!os.detected.release"));
+        parentModel.addProfile(newPropertyProfile("unrelated", "skipTests"));
+        final Profile osProfile = new Profile();
+        osProfile.setId("os-family");
+        osProfile.setActivation(new Activation());
+        osProfile.getActivation().setOs(new ActivationOS());
+        parentModel.addProfile(osProfile);
+
+        final MavenProject parent = newProject(parentModel, null);
+        final PlatformDependencies found = PlatformDependencies.find(newProject(newModel("app"), parent));
+        assertEquals(Arrays.asList("detected-windows", "not-ubuntu", "os-family"), found.platformProfiles);
+        assertTrue(found.projectDependencies.isEmpty());
+        assertFalse(found.isEmpty());
+    }
+
+    @Test
+    public void ignoresUnrelatedProfiles() {
+        final Model model = newModel("app");
+        model.addProfile(newPropertyProfile("unrelated", "skipTests"));
+        model.addProfile(new Profile());
+
+        final PlatformDependencies found = PlatformDependencies.find(newProject(model, null));
+        assertEquals(Collections.<String>emptyList(), found.platformProfiles);
+        assertTrue(found.isEmpty());
+    }
+
+    @Test
+    public void resolvesPropertyRefsRecursively() {
+        final Model parentModel = newModel("parent");
+        parentModel.getProperties().setProperty("b", "${os.detected.classifier}");
+        parentModel.getProperties().setProperty("cycle1", "${cycle2}");
+        parentModel.getProperties().setProperty("cycle2", "${cycle1}");
+        final Model original = newModel("app");
+        original.getProperties().setProperty("a", "${b}");
+        original.addDependency(newDependency("native-lib", "${a}"));
+        original.addDependency(newDependency("cyclic-lib", "${cycle1}"));
+
+        final Model effective = newModel("app");
+        effective.getProperties().setProperty(Detector.DETECTED_CLASSIFIER, "linux-x86_64");
+        effective.getProperties().setProperty("a", "${b}");
+        effective.getProperties().setProperty("b", "${os.detected.classifier}");
+        effective.addDependency(newDependency("native-lib", "linux-x86_64"));
+        effective.addDependency(newDependency("cyclic-lib", "${cycle1}"));
+
+        final MavenProject project = newProject(effective, original, newProject(parentModel, null));
+        final PlatformDependencies found = PlatformDependencies.find(project);
+        assertEquals(1, found.projectDependencies.size());
+        assertEquals("native-lib", found.projectDependencies.get(0).getArtifactId());
+    }
+
+    /**
+     * The variants of a platform-dependent artifact that do not depend on the platform are not reported.
+     */
+    @Test
+    public void matchesClassifiers() {
+        final Model original = newModel("app");
+        original.addDependency(newDependency("netty-transport-native-epoll", null));
+        original.addDependency(newDependency("netty-transport-native-epoll", "${os.detected.classifier}"));
+        original.addDependency(newDependency("netty-tcnative", "${os.detected.classifier}"));
+        original.addDependency(newDependency("netty-tcnative", "sources"));
+
+        final Model effective = newModel("app");
+        effective.getProperties().setProperty(Detector.DETECTED_CLASSIFIER, "linux-x86_64");
+        effective.addDependency(newDependency("netty-transport-native-epoll", null));
+        effective.addDependency(newDependency("netty-transport-native-epoll", "linux-x86_64"));
+        effective.addDependency(newDependency("netty-tcnative", "linux-x86_64"));
+        effective.addDependency(newDependency("netty-tcnative", "sources"));
+
+        final PlatformDependencies found = PlatformDependencies.find(newProject(effective, original, null));
+        assertEquals(2, found.projectDependencies.size());
+        for (Dependency d : found.projectDependencies) {
+            assertEquals(d.getArtifactId(), "linux-x86_64", d.getClassifier());
+        }
+    }
+
+    private static Model newModel(String artifactId) {
+        final Model model = new Model();
+        model.setGroupId("com.example");
+        model.setArtifactId(artifactId);
+        model.setVersion("1.0");
+        return model;
+    }
+
+    private static MavenProject newProject(Model model, MavenProject parent) {
+        return newProject(model, model, parent);
+    }
+
+    private static MavenProject newProject(Model effective, Model original, MavenProject parent) {
+        final MavenProject project = new MavenProject(effective);
+        project.setOriginalModel(original);
+        project.setParent(parent);
+        return project;
+    }
+
+    private static Dependency newDependency(String artifactId, String classifier) {
+        final Dependency d = new Dependency();
+        d.setGroupId("com.example");
+        d.setArtifactId(artifactId);
+        d.setVersion("1.0");
+        d.setClassifier(classifier);
+        return d;
+    }
+
+    private static Profile newPropertyProfile(String id, String propertyName) {
+        final ActivationProperty property = new ActivationProperty();
+        property.setName(propertyName);
+        final Activation activation = new Activation();
+        activation.setProperty(property);
+        final Profile profile = new Profile();
+        profile.setId(id);
+        profile.setActivation(activation);
+        return profile;
+    }
+}